@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+// Outcome of one entry of a batch, in request order: the created booking, or the status and error it was refused with.
+@Builder
+@Getter
+@Setter
+public class BookingBatchResultDto {
+    private int index;
+    private int status;
+    private BookingResponseDto booking;
+    private String error;
+}
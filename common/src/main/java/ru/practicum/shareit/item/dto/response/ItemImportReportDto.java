@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+// One line of an import report: a refused row with its error, running totals after each saved chunk,
+// or the final totals.
+@Builder
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportReportDto {
+    public static final String ERROR = "error";
+    public static final String PROGRESS = "progress";
+    public static final String DONE = "done";
+
+    private String type;
+    private Long row;
+    private String error;
+    private Long processed;
+    private Long imported;
+    private Long failed;
+}
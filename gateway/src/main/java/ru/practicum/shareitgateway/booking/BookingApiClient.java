@@ -1,15 +1,15 @@
 package ru.practicum.shareitgateway.booking;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequestDto;
 import ru.practicum.shareit.booking.enums.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareitgateway.client.ApiClient;
+import ru.practicum.shareitgateway.client.ServerTransports;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -17,35 +17,50 @@ public class BookingApiClient extends ApiClient {
     private static final String PREFIX = "/bookings";
 
 
-    public BookingApiClient(RestTemplateBuilder restTemplate, @Value("${shareit.server.url}") String shareItServerUrl) {
-        super(restTemplate
-                .uriTemplateHandler(new DefaultUriBuilderFactory(shareItServerUrl + PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+    public BookingApiClient(ServerTransports transports) {
+        super(transports, PREFIX);
     }
 
-    public ResponseEntity<Object> createBooking(Long userId, BookingCreateRequestDto bookingCreateRequestDto) {
+    public Mono<ResponseEntity<Object>> createBooking(Long userId, BookingCreateRequestDto bookingCreateRequestDto) {
         return post("", userId, bookingCreateRequestDto);
     }
 
-    public ResponseEntity<Object> approveBooking(Long ownerId, Long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> createBookings(Long userId, List<BookingCreateRequestDto> bookings) {
+        return post("/batch", userId, bookings);
+    }
+
+    public Mono<ResponseEntity<Object>> approveBooking(Long ownerId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingsByUser(Long userId, BookingState bookingState, int page, int size) {
-        Map<String, Object> parameters = Map.of("BookingState", bookingState,
+    public Mono<ResponseEntity<Object>> getBookingsByUser(Long userId, BookingState bookingState, int page, int size,
+                                                    String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("bookingState", bookingState,
                 "page", page,
-                "size", size);
-        return get("", userId, parameters);
+                "size", size));
+        String path = "?bookingState={bookingState}&page={page}&size={size}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path += "&cursor={cursor}";
+        }
+        return get(path, userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(Long ownerId, BookingState bookingState) {
-        Map<String, Object> parameters = Map.of("BookingState", bookingState);
-        return get("/owner", ownerId, parameters);
+    public Mono<ResponseEntity<Object>> getBookingsByOwner(Long ownerId, BookingState bookingState, int from, int size,
+                                                     String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("state", bookingState,
+                "from", from,
+                "size", size));
+        String path = "/owner?state={state}&from={from}&size={size}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path += "&cursor={cursor}";
+        }
+        return get(path, ownerId, parameters);
     }
 }
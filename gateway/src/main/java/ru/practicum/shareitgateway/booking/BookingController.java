@@ -1,13 +1,22 @@
 package ru.practicum.shareitgateway.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequestDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/bookings")
+@Validated
 public class BookingController {
     private final BookingApiClient bookingApiClient;
 
@@ -16,14 +25,21 @@ public class BookingController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(
+    public Mono<ResponseEntity<Object>> createBooking(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestBody @Valid BookingCreateRequestDto bookingCreateRequestDto) {
         return bookingApiClient.createBooking(userId, bookingCreateRequestDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid BookingCreateRequestDto> bookingCreateRequestDtos) {
+        return bookingApiClient.createBookings(userId, bookingCreateRequestDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(
+    public Mono<ResponseEntity<Object>> approveBooking(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
             @PathVariable Long bookingId,
             @RequestParam Boolean approved) {
@@ -31,25 +47,29 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(
+    public Mono<ResponseEntity<Object>> getBookingById(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @PathVariable Long bookingId) {
         return bookingApiClient.getBookingById(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookingsByUser(
+    public Mono<ResponseEntity<Object>> getBookingsByUser(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @RequestParam(defaultValue = "0") int page,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "ALL") BookingState bookingState,
-            @RequestParam(defaultValue = "10") int size) {
-        return bookingApiClient.getBookingsByUser(userId, bookingState, page, size);
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        return bookingApiClient.getBookingsByUser(userId, bookingState, page, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByOwner(
+    public Mono<ResponseEntity<Object>> getBookingsByOwner(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
-            @RequestParam(required = false, defaultValue = "ALL") BookingState state) {
-        return bookingApiClient.getBookingsByOwner(ownerId, state);
+            @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        return bookingApiClient.getBookingsByOwner(ownerId, state, from, size, cursor);
     }
 }
@@ -1,111 +1,150 @@
 package ru.practicum.shareitgateway.client;
 
 import jakarta.annotation.Nullable;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class ApiClient {
-    protected final RestTemplate restTemplate;
-
-    public ApiClient(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
-        this.restTemplate.setErrorHandler(new org.springframework.web.client.DefaultResponseErrorHandler() {
-            @Override
-            public boolean hasError(org.springframework.http.client.ClientHttpResponse response) {
-                return false; // не считаем ни 4xx, ни 5xx ошибками для RestTemplate
-            }
-        });
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization", "content-length");
+
+    private final ServerTransport transport;
+    private final ServerStreamTransport streamTransport;
+
+    public ApiClient(ServerTransports transports, String prefix) {
+        this.transport = transports.forPrefix(prefix);
+        this.streamTransport = transports.streamingForPrefix(prefix);
     }
 
-    public ResponseEntity<Object> get(String path) {
+    public Mono<ResponseEntity<Object>> get(String path) {
         return sendRequestToApi(HttpMethod.GET, path, null, null, null);
     }
 
-    public ResponseEntity<Object> get(String path, Long userId) {
+    public Mono<ResponseEntity<Object>> get(String path, Long userId) {
         return sendRequestToApi(HttpMethod.GET, path, userId, null, null);
     }
 
-    public ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    public Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return sendRequestToApi(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    public <T> ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    public <T> Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return sendRequestToApi(HttpMethod.GET, path, userId, parameters, body);
     }
 
-    public <T> ResponseEntity<Object> post(String path, T body) {
+    public <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return sendRequestToApi(HttpMethod.POST, path, null, null, body);
     }
 
-    public <T> ResponseEntity<Object> post(String path, Long userId, T body) {
+    public <T> Mono<ResponseEntity<Object>> post(String path, Long userId, T body) {
         return sendRequestToApi(HttpMethod.POST, path, userId, null, body);
     }
 
-    public <T> ResponseEntity<Object> post(String path, Long userId, Map<String, Object> parameters, T body) {
+    public <T> Mono<ResponseEntity<Object>> post(String path, Long userId, Map<String, Object> parameters, T body) {
         return sendRequestToApi(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    public <T> ResponseEntity<Object> patch(String path, T body) {
+    // the body is passed to the server as it is read and the answer is relayed as it arrives; neither is buffered
+    // nor parsed here
+    public Mono<ResponseEntity<StreamingResponseBody>> postStream(String path, Long userId, MediaType contentType,
+                                                                  Resource body) {
+        return streamTransport.exchange(HttpMethod.POST, path, requestHeaders(userId, contentType, MediaType.ALL),
+                        Map.of(), body)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(relayedHeaders(response.getHeaders()))
+                        .body(relay(response.getBody())));
+    }
+
+    public <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    public <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    public <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    public <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    public <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return sendRequestToApi(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    public ResponseEntity<Object> delete(String path) {
+    public Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    public ResponseEntity<Object> delete(String path, long userId) {
+    public Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    public ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    public Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return sendRequestToApi(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> sendRequestToApi(HttpMethod httpMethod, String path, Long userId,
-                                                        @Nullable Map<String, Object> parameters, @Nullable T body) {
+    private <T> Mono<ResponseEntity<Object>> sendRequestToApi(HttpMethod httpMethod, String path, Long userId,
+                                                              @Nullable Map<String, Object> parameters,
+                                                              @Nullable T body) {
+        HttpHeaders headers = requestHeaders(userId, MediaType.APPLICATION_JSON, MediaType.APPLICATION_JSON);
+        return transport.exchange(httpMethod, path, headers, parameters == null ? Map.of() : parameters, body)
+                .map(ApiClient::gatewayResponse);
+    }
+
+    private static HttpHeaders requestHeaders(Long userId, MediaType contentType, MediaType accept) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setContentType(contentType);
+        headers.setAccept(List.of(accept));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-
-        HttpEntity<T> request = new HttpEntity<>(body, headers);
-        ResponseEntity<Object> response;
-        try {
-            if (parameters != null) {
-                response = restTemplate.exchange(path, httpMethod, request, Object.class, parameters);
-            } else {
-                response = restTemplate.exchange(path, httpMethod, request, Object.class);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        return gatewayResponse(response);
+        return headers;
     }
 
-    private static ResponseEntity<Object> gatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    // The server's bytes are relayed as they are: no JSON tree is built and serialized again.
+    private static ResponseEntity<Object> gatewayResponse(ResponseEntity<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(relayedHeaders(response.getHeaders()));
 
-        if (response.hasBody()) {
+        if (response.hasBody() && response.getBody().length > 0) {
             return responseBuilder.body(response.getBody());
         }
 
         return responseBuilder.build();
     }
+
+    private static HttpHeaders relayedHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
+    // Written on the servlet async thread, where waiting for the next buffer is fine. Each buffer is flushed on its
+    // own, since the server flushes its report line by line.
+    private static StreamingResponseBody relay(Flux<DataBuffer> body) {
+        return out -> {
+            try (Stream<DataBuffer> buffers = body.doOnDiscard(DataBuffer.class, DataBufferUtils::release).toStream()) {
+                Iterator<DataBuffer> iterator = buffers.iterator();
+                while (iterator.hasNext()) {
+                    try (InputStream in = iterator.next().asInputStream(true)) {
+                        in.transferTo(out);
+                    }
+                    out.flush();
+                }
+            }
+        };
+    }
 }
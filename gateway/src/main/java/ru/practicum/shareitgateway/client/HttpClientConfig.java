@@ -0,0 +1,92 @@
+package ru.practicum.shareitgateway.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+// All ApiClient subclasses share one keep-alive connection pool to the server.
+@Configuration
+@ConditionalOnProperty(name = "shareit.gateway.client", havingValue = "rest-template", matchIfMissing = true)
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager serverConnectionManager(HttpClientProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.maxTotal())
+                .setMaxConnPerRoute(properties.maxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.connectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.responseTimeout()))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public CloseableHttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager,
+                                                HttpClientProperties properties) {
+        TimeValue defaultKeepAlive = TimeValue.of(properties.keepAlive());
+        return HttpClients.custom()
+                .setConnectionManager(serverConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.poolAcquireTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.responseTimeout()))
+                        .build())
+                // a call never waits on the server past its deadline, so the bulkhead permit it held for that
+                // long is not freed while the request thread is still blocked in the call
+                .addExecInterceptorFirst("request-deadline", (request, scope, chain) -> {
+                    Header deadline = request.getFirstHeader(ServerResilience.DEADLINE_HEADER);
+                    if (deadline != null) {
+                        RequestConfig config = scope.clientContext.getRequestConfig();
+                        Timeout remaining = Timeout.ofMilliseconds(
+                                Math.max(1, Long.parseLong(deadline.getValue()) - System.currentTimeMillis()));
+                        Timeout configured = config.getResponseTimeout();
+                        if (configured == null || remaining.compareTo(configured) < 0) {
+                            scope.clientContext.setRequestConfig(RequestConfig.copy(config)
+                                    .setResponseTimeout(remaining)
+                                    .build());
+                        }
+                    }
+                    return chain.proceed(request, scope);
+                })
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue announced = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return announced.compareTo(defaultKeepAlive) < 0 ? announced : defaultKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.idleEviction()))
+                .build();
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory serverRequestFactory(CloseableHttpClient serverHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+    }
+
+    @Bean
+    public RestTemplateCustomizer pooledRequestFactoryCustomizer(HttpComponentsClientHttpRequestFactory serverRequestFactory) {
+        return restTemplate -> restTemplate.setRequestFactory(serverRequestFactory);
+    }
+
+    // leased, pending and available connections as httpcomponents.httpclient.pool.* metrics
+    @Bean
+    public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(serverConnectionManager, "shareit-server");
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareitgateway.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.http-client")
+public record HttpClientProperties(@DefaultValue("200") int maxTotal,
+                                   @DefaultValue("100") int maxPerRoute,
+                                   @DefaultValue("5s") Duration poolAcquireTimeout,
+                                   @DefaultValue("2s") Duration connectTimeout,
+                                   @DefaultValue("10s") Duration responseTimeout,
+                                   @DefaultValue("30s") Duration keepAlive,
+                                   @DefaultValue("60s") Duration idleEviction) {
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareitgateway.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Single-flight for GETs: identical requests arriving while one is in flight share its server call and response.
+@Component
+public class InFlightRequests implements MeterBinder {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final Map<Key, Mono<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public ServerTransport coalescing(String prefix, ServerTransport transport) {
+        return (method, path, headers, uriVariables, body) -> {
+            if (method != HttpMethod.GET) {
+                return transport.exchange(method, path, headers, uriVariables, body);
+            }
+
+            Key key = new Key(prefix, path, uriVariables, headers.getFirst(USER_HEADER),
+                    headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+            return Mono.defer(() -> {
+                AtomicBoolean leader = new AtomicBoolean();
+                Mono<ResponseEntity<byte[]>> shared = inFlight.computeIfAbsent(key, k -> {
+                    leader.set(true);
+                    return transport.exchange(method, path, headers, uriVariables, body)
+                            .doFinally(signal -> inFlight.remove(k))
+                            .cache();
+                });
+                if (!leader.get()) {
+                    coalesced.increment();
+                }
+                return shared;
+            });
+        };
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.gateway.requests.coalesced", coalesced, LongAdder::sum)
+                .description("GET requests answered by another identical in-flight server call")
+                .register(registry);
+    }
+
+    private record Key(String prefix, String path, Map<String, Object> uriVariables, String userId,
+                       String ifNoneMatch) {
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareitgateway.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+
+// GET responses carrying an ETag, kept per path, query and user. Every hit is still revalidated with
+// If-None-Match, so the server decides freshness and a 304 costs no body transfer.
+@Component
+public class ResponseCache {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final Cache<Key, ResponseEntity<byte[]>> responses;
+
+    public ResponseCache(@Value("${shareit.gateway.response-cache.max-size:64MB}") DataSize maxSize) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<Key, ResponseEntity<byte[]>>weigher((key, response) -> response.getBody().length)
+                .build();
+    }
+
+    public ServerTransport revalidating(String prefix, ServerTransport transport) {
+        return (method, path, headers, uriVariables, body) -> {
+            if (method != HttpMethod.GET) {
+                return transport.exchange(method, path, headers, uriVariables, body)
+                        .doOnNext(response -> {
+                            if (response.getStatusCode().is2xxSuccessful()) {
+                                invalidate(prefix);
+                            }
+                        });
+            }
+
+            Key key = new Key(prefix, path, uriVariables, headers.getFirst(USER_HEADER));
+            ResponseEntity<byte[]> cached = responses.getIfPresent(key);
+            if (cached != null) {
+                headers.setIfNoneMatch(cached.getHeaders().getETag());
+            }
+            return transport.exchange(method, path, headers, uriVariables, body)
+                    .map(response -> {
+                        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                            return cached;
+                        }
+                        if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null
+                                && response.hasBody()) {
+                            responses.put(key, response);
+                        } else {
+                            responses.invalidate(key);
+                        }
+                        return response;
+                    });
+        };
+    }
+
+    // Writes to a resource drop everything cached under its prefix, e.g. any item change clears /items.
+    public void invalidate(String prefix) {
+        responses.asMap().keySet().removeIf(key -> key.prefix().equals(prefix));
+    }
+
+    private record Key(String prefix, String path, Map<String, Object> uriVariables, String userId) {
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareitgateway.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Blocking mode: the exchange runs on the request thread when the controller's Mono is subscribed.
+@Component
+@ConditionalOnProperty(name = "shareit.gateway.client", havingValue = "rest-template", matchIfMissing = true)
+public class RestTemplateServerTransports implements ServerTransports {
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final String serverUrl;
+    private final ServerTransportChain transportChain;
+    // one client per prefix serves both its buffered and its streamed exchanges
+    private final Map<String, RestTemplate> restTemplates = new ConcurrentHashMap<>();
+
+    public RestTemplateServerTransports(RestTemplateBuilder restTemplateBuilder,
+                                        @Value("${shareit.server.url}") String serverUrl,
+                                        ServerTransportChain transportChain) {
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.serverUrl = serverUrl;
+        this.transportChain = transportChain;
+    }
+
+    @Override
+    public ServerTransport forPrefix(String prefix) {
+        RestTemplate restTemplate = restTemplates.computeIfAbsent(prefix, this::restTemplate);
+        ServerTransport transport = (method, path, headers, uriVariables, body) -> Mono.fromCallable(() ->
+                restTemplate.exchange(path, method, new HttpEntity<>(body, headers), byte[].class, uriVariables));
+        return transportChain.decorate(prefix, transport);
+    }
+
+    @Override
+    public ServerStreamTransport streamingForPrefix(String prefix) {
+        RestTemplate restTemplate = restTemplates.computeIfAbsent(prefix, this::restTemplate);
+        ServerStreamTransport transport = (method, path, headers, uriVariables, body) -> Mono.fromCallable(() ->
+                asStream(restTemplate.exchange(path, method, new HttpEntity<>(body, headers), byte[].class,
+                        uriVariables)));
+        return transportChain.decorate(prefix, transport);
+    }
+
+    // the blocking client has read the whole answer by now, so it is handed on as a single buffer
+    private static ResponseEntity<Flux<DataBuffer>> asStream(ResponseEntity<byte[]> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .body(response.hasBody()
+                        ? Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(response.getBody()))
+                        : Flux.empty());
+    }
+
+    private RestTemplate restTemplate(String prefix) {
+        return restTemplateBuilder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + prefix))
+                .errorHandler(new DefaultResponseErrorHandler() {
+                    @Override
+                    public boolean hasError(ClientHttpResponse response) {
+                        return false;
+                    }
+                })
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareitgateway.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// Per-route circuit breaker, bulkhead and deadline: a slow or failing endpoint is answered with 503 at the gateway
+// instead of holding more requests. Routes are the path with ids collapsed, e.g. "bookings.owner" or "items.id".
+@Component
+public class ServerResilience {
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+    // anything the server would bind as a long id, "-1" and "+7" included, so bad ids share one route
+    private static final Pattern ID_SEGMENT = Pattern.compile("[+-]?\\d+");
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final MeterRegistry meterRegistry;
+    private final Duration deadline;
+    private final Map<String, Duration> routeDeadlines;
+
+    public ServerResilience(ObjectProvider<CircuitBreakerRegistry> circuitBreakers,
+                            ObjectProvider<BulkheadRegistry> bulkheads,
+                            ObjectProvider<MeterRegistry> meterRegistry,
+                            @Value("${shareit.gateway.deadline:8s}") Duration deadline,
+                            Environment environment) {
+        this.circuitBreakers = circuitBreakers.getIfAvailable(CircuitBreakerRegistry::ofDefaults);
+        this.bulkheads = bulkheads.getIfAvailable(BulkheadRegistry::ofDefaults);
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.deadline = deadline;
+        // keyed by route, e.g. shareit.gateway.route-deadlines[items.import]=10m
+        this.routeDeadlines = Binder.get(environment)
+                .bind("shareit.gateway.route-deadlines", Bindable.mapOf(String.class, Duration.class))
+                .orElse(Map.of());
+    }
+
+    public ServerTransport guarded(String prefix, ServerTransport transport) {
+        return (method, path, headers, uriVariables, body) -> guard(route(prefix, path), headers,
+                () -> transport.exchange(method, path, headers, uriVariables, body), Function.identity());
+    }
+
+    // the deadline, circuit and bulkhead cover the call up to the response headers; the body is relayed after that
+    public ServerStreamTransport guardedStream(String prefix, ServerStreamTransport transport) {
+        return (method, path, headers, uriVariables, body) -> guard(route(prefix, path), headers,
+                () -> transport.exchange(method, path, headers, uriVariables, body),
+                error -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(error)));
+    }
+
+    private <T> Mono<ResponseEntity<T>> guard(String route, HttpHeaders headers,
+                                              Supplier<Mono<ResponseEntity<T>>> exchange,
+                                              Function<byte[], T> errorBody) {
+        CircuitBreaker circuitBreaker = circuitBreaker(route);
+        Bulkhead bulkhead = bulkheads.bulkhead(route);
+        Duration routeDeadline = routeDeadlines.getOrDefault(route, deadline);
+        return Mono.defer(() -> {
+                    // absolute epoch millis, so the server can drop work the gateway has already given up on
+                    headers.set(DEADLINE_HEADER, String.valueOf(System.currentTimeMillis() + routeDeadline.toMillis()));
+                    return exchange.get();
+                })
+                .timeout(routeDeadline)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorResume(CallNotPermittedException.class, e -> shed(route, "circuit-open", errorBody))
+                .onErrorResume(BulkheadFullException.class, e -> shed(route, "bulkhead-full", errorBody))
+                .onErrorResume(TimeoutException.class, e -> shed(route, "deadline", errorBody))
+                .onErrorResume(e -> e instanceof ResourceAccessException || e instanceof WebClientRequestException,
+                        e -> shed(route, "unreachable", errorBody));
+    }
+
+    static String route(String prefix, String path) {
+        StringBuilder route = new StringBuilder(prefix.substring(1));
+        for (String segment : path.split("\\?", 2)[0].split("/")) {
+            if (!segment.isEmpty()) {
+                route.append('.').append(ID_SEGMENT.matcher(segment).matches() ? "id" : segment);
+            }
+        }
+        return route.toString();
+    }
+
+    // 5xx answers count as failures too, not only transport errors and timeouts. A route with its own deadline, such
+    // as items.import, is not slow before that deadline, so healthy long calls do not open its circuit.
+    private CircuitBreaker circuitBreaker(String route) {
+        return circuitBreakers.circuitBreaker(route, () -> {
+            CircuitBreakerConfig defaults = circuitBreakers.getDefaultConfig();
+            Duration slowCall = defaults.getSlowCallDurationThreshold();
+            Duration routeDeadline = routeDeadlines.getOrDefault(route, slowCall);
+            return CircuitBreakerConfig.from(defaults)
+                    .slowCallDurationThreshold(routeDeadline.compareTo(slowCall) > 0 ? routeDeadline : slowCall)
+                    .recordResult(result -> result instanceof ResponseEntity<?> response
+                            && response.getStatusCode().is5xxServerError())
+                    .build();
+        });
+    }
+
+    private <T> Mono<ResponseEntity<T>> shed(String route, String reason, Function<byte[], T> errorBody) {
+        meterRegistry.counter("shareit.gateway.requests.rejected", "route", route, "reason", reason).increment();
+        String body = "{\"error\":\"Server is unavailable for " + route + ": " + reason + "\"}";
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorBody.apply(body.getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareitgateway.client;
+
+import jakarta.annotation.Nullable;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// One HTTP exchange whose response body is handed on as it arrives, for answers the server writes while it works.
+@FunctionalInterface
+public interface ServerStreamTransport {
+    Mono<ResponseEntity<Flux<DataBuffer>>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                    Map<String, Object> uriVariables, @Nullable Object body);
+}
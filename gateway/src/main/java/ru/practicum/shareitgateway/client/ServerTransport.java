@@ -0,0 +1,16 @@
+package ru.practicum.shareitgateway.client;
+
+import jakarta.annotation.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// One HTTP exchange with the server; 4xx and 5xx responses are results, not errors.
+@FunctionalInterface
+public interface ServerTransport {
+    Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                          Map<String, Object> uriVariables, @Nullable Object body);
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareitgateway.client;
+
+import org.springframework.stereotype.Component;
+
+// Layers every server transport: ETag cache, then single-flight, then circuit breaker, bulkhead and deadline.
+// Streamed exchanges are never cached or shared, so they only get the last three.
+@Component
+public class ServerTransportChain {
+    private final ResponseCache responseCache;
+    private final InFlightRequests inFlightRequests;
+    private final ServerResilience serverResilience;
+
+    public ServerTransportChain(ResponseCache responseCache, InFlightRequests inFlightRequests,
+                                ServerResilience serverResilience) {
+        this.responseCache = responseCache;
+        this.inFlightRequests = inFlightRequests;
+        this.serverResilience = serverResilience;
+    }
+
+    public ServerTransport decorate(String prefix, ServerTransport transport) {
+        return responseCache.revalidating(prefix,
+                inFlightRequests.coalescing(prefix,
+                        serverResilience.guarded(prefix, transport)));
+    }
+
+    public ServerStreamTransport decorate(String prefix, ServerStreamTransport transport) {
+        return serverResilience.guardedStream(prefix, transport);
+    }
+}
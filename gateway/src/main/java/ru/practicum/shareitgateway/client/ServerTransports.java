@@ -0,0 +1,7 @@
+package ru.practicum.shareitgateway.client;
+
+public interface ServerTransports {
+    ServerTransport forPrefix(String prefix);
+
+    ServerStreamTransport streamingForPrefix(String prefix);
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareitgateway.client;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Map;
+
+// Non-blocking mode: exchanges run on the Reactor Netty event loop and the servlet request is completed
+// asynchronously, so no request thread waits for the server.
+@Configuration
+@ConditionalOnProperty(name = "shareit.gateway.client", havingValue = "web-client")
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class WebClientServerTransports {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    // after Boot's own connector customizer, which is ordered 0
+    @Bean
+    @Order(1)
+    public WebClientCustomizer serverConnectorCustomizer(HttpClientProperties properties) {
+        ConnectionProvider provider = ConnectionProvider.builder("shareit-server")
+                // Reactor Netty keeps one pool per remote address, which is what max-per-route bounds
+                .maxConnections(properties.maxPerRoute())
+                .pendingAcquireTimeout(properties.poolAcquireTimeout())
+                .maxIdleTime(properties.keepAlive())
+                .evictInBackground(properties.idleEviction())
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+                .responseTimeout(properties.responseTimeout());
+        return builder -> builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+
+    @Bean
+    public ServerTransports webClientServerTransports(WebClient.Builder webClientBuilder,
+                                                      @Value("${shareit.server.url}") String serverUrl,
+                                                      ServerTransportChain transportChain) {
+        return new ServerTransports() {
+            @Override
+            public ServerTransport forPrefix(String prefix) {
+                WebClient webClient = webClient(webClientBuilder, serverUrl + prefix);
+                ServerTransport transport = (method, path, headers, uriVariables, body) ->
+                        request(webClient, method, path, headers, uriVariables, body)
+                                .exchangeToMono(response -> response.toEntity(byte[].class));
+                return transportChain.decorate(prefix, transport);
+            }
+
+            // 4xx and 5xx answers are relayed like any other, and the body is not held in memory on the way
+            @Override
+            public ServerStreamTransport streamingForPrefix(String prefix) {
+                WebClient webClient = webClient(webClientBuilder, serverUrl + prefix);
+                ServerStreamTransport transport = (method, path, headers, uriVariables, body) ->
+                        request(webClient, method, path, headers, uriVariables, body)
+                                .retrieve()
+                                .onStatus(status -> true, response -> Mono.empty())
+                                .toEntityFlux(DataBuffer.class);
+                return transportChain.decorate(prefix, transport);
+            }
+        };
+    }
+
+    private static WebClient webClient(WebClient.Builder webClientBuilder, String baseUrl) {
+        return webClientBuilder.clone()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                .build();
+    }
+
+    private static WebClient.RequestHeadersSpec<?> request(WebClient webClient, HttpMethod method, String path,
+                                                           HttpHeaders headers, Map<String, Object> uriVariables,
+                                                           @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, uriVariables)
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        return body == null ? request
+                : body instanceof Resource resource ? request.body(read(resource), DataBuffer.class)
+                : request.bodyValue(body);
+    }
+
+    // reading a streamed body blocks, so it is kept off the event loop
+    private static Flux<DataBuffer> read(Resource resource) {
+        return DataBufferUtils.read(resource, DefaultDataBufferFactory.sharedInstance, STREAM_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
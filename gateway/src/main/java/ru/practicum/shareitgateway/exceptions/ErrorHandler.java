@@ -0,0 +1,20 @@
+package ru.practicum.shareitgateway.exceptions;
+
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// @Validated controllers reject bad path and query parameters with ConstraintViolationException, which is a 400.
+@RestControllerAdvice
+public class ErrorHandler {
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleConstraintViolationException(final ConstraintViolationException e) {
+        return Map.of("error", e.getMessage());
+    }
+}
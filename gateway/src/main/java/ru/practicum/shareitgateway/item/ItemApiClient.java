@@ -1,16 +1,17 @@
 package ru.practicum.shareitgateway.item;
 
 import jakarta.validation.Valid;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.comments.dto.request.CommentCreateRequestDto;
 import ru.practicum.shareit.item.dto.request.ItemCreateDto;
 import ru.practicum.shareit.item.dto.request.ItemUpdateDto;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareitgateway.client.ApiClient;
+import ru.practicum.shareitgateway.client.ServerTransports;
 
 import java.util.Map;
 
@@ -18,36 +19,38 @@ import java.util.Map;
 public class ItemApiClient extends ApiClient {
     private static final String PREFIX = "/items";
 
-    public ItemApiClient(RestTemplateBuilder restTemplate,
-                         @Value("${shareit.server.url}") String shareItServerUrl) {
-        super(restTemplate
-                .uriTemplateHandler(new DefaultUriBuilderFactory(shareItServerUrl + PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+    public ItemApiClient(ServerTransports transports) {
+        super(transports, PREFIX);
     }
 
-    public ResponseEntity<Object> createItem(Long userId, ItemCreateDto dto) {
+    public Mono<ResponseEntity<Object>> createItem(Long userId, ItemCreateDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemUpdateDto dto) {
+    public Mono<ResponseEntity<StreamingResponseBody>> importItems(Long userId, MediaType contentType, Resource body) {
+        return postStream("/import", userId, contentType, body);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(Long userId, Long itemId, ItemUpdateDto dto) {
         return patch("/" + itemId, userId, dto);
     }
 
-    public ResponseEntity<Object> getById(Long userId, Long itemId) {
+    public Mono<ResponseEntity<Object>> getById(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllUserItems(Long userId) {
+    public Mono<ResponseEntity<Object>> getAllUserItems(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> searchItem(Long userId, String text) {
-        Map<String, Object> params = Map.of("text", text);
-        return get("/search?text={text}", userId, params);
+    public Mono<ResponseEntity<Object>> searchItem(Long userId, String text, int from, int size) {
+        Map<String, Object> params = Map.of("text", text,
+                "from", from,
+                "size", size);
+        return get("/search?text={text}&from={from}&size={size}", userId, params);
     }
 
-    public ResponseEntity<Object> createComment(Long userId, Long itemId,
+    public Mono<ResponseEntity<Object>> createComment(Long userId, Long itemId,
                                                 @Valid CommentCreateRequestDto dto) {
         return post("/" + itemId + "/comment", userId, dto);
     }
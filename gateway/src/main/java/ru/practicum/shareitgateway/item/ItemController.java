@@ -1,14 +1,25 @@
 package ru.practicum.shareitgateway.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.comments.dto.request.CommentCreateRequestDto;
 import ru.practicum.shareit.item.dto.request.ItemCreateDto;
 import ru.practicum.shareit.item.dto.request.ItemUpdateDto;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/items")
+@Validated
 public class ItemController {
     private final ItemApiClient itemApiClient;
 
@@ -17,37 +28,49 @@ public class ItemController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @Valid @RequestBody ItemCreateDto dto) {
         return itemApiClient.createItem(userId, dto);
     }
 
+    // rows are validated by the server while they stream in, and its report streams back, so neither a large
+    // catalog nor its report is held by the gateway
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public Mono<ResponseEntity<StreamingResponseBody>> importItems(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        return itemApiClient.importItems(userId, contentType, new InputStreamResource(body));
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @PathVariable Long itemId,
                                              @Valid @RequestBody ItemUpdateDto dto) {
         return itemApiClient.updateItem(userId, itemId, dto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> getItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @PathVariable Long itemId) {
         return itemApiClient.getById(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUserItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getAllUserItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
         return itemApiClient.getAllUserItems(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam("text") String text) {
-        return itemApiClient.searchItem(userId, text);
+    public Mono<ResponseEntity<Object>> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestParam("text") String text,
+                                              @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                              @Positive @RequestParam(defaultValue = "10") int size) {
+        return itemApiClient.searchItem(userId, text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createCommentForItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> createCommentForItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                        @PathVariable Long itemId,
                                                        @RequestBody @Valid CommentCreateRequestDto dto) {
         return itemApiClient.createComment(userId, itemId, dto);
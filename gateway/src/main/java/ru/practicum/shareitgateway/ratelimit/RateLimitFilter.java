@@ -0,0 +1,99 @@
+package ru.practicum.shareitgateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-user rate limit on X-Sharer-User-Id; requests without the header are not limited, a header that is not a
+// number is answered with 400 here, and "7", "07" and "+7" share one bucket as they name the same user.
+// Buckets live in a bounded cache; an idle bucket is full again after capacity / refillPerSecond, so dropping it
+// after a longer idleExpiry loses nothing.
+@Component
+@ConditionalOnProperty(name = "shareit.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimitProperties properties;
+    private final List<CostedRoute> routes;
+    private final Cache<Long, TokenBucket> buckets;
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.routes = properties.routes().stream()
+                .map(route -> new CostedRoute(route.method(), PathPatternParser.defaultInstance.parse(route.pattern()),
+                        route.cost()))
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxUsers())
+                .expireAfterAccess(properties.idleExpiry())
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(USER_HEADER);
+        if (header == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long userId;
+        try {
+            userId = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            reject(response, HttpStatus.BAD_REQUEST, USER_HEADER + " must be a number");
+            return;
+        }
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(userId,
+                id -> new TokenBucket(properties.capacity(), properties.refillPerSecond(), now));
+        long waitNanos = bucket.tryConsume(cost(request), now);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String error) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + error + "\"}");
+    }
+
+    private int cost(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        for (CostedRoute route : routes) {
+            if ((route.method() == null || route.method().equals(method)) && route.pattern().matches(path)) {
+                return route.cost();
+            }
+        }
+        return properties.defaultCost();
+    }
+
+    private record CostedRoute(HttpMethod method, PathPattern pattern, int cost) {
+    }
+}
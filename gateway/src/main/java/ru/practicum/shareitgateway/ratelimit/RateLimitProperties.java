@@ -0,0 +1,21 @@
+package ru.practicum.shareitgateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.List;
+
+// One bucket per user; each request takes the tokens of the first matching route, or defaultCost.
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public record RateLimitProperties(@DefaultValue("60") long capacity,
+                                  @DefaultValue("10") double refillPerSecond,
+                                  @DefaultValue("1") int defaultCost,
+                                  @DefaultValue("1000000") long maxUsers,
+                                  @DefaultValue("10m") Duration idleExpiry,
+                                  @DefaultValue List<Route> routes) {
+
+    public record Route(HttpMethod method, String pattern, int cost) {
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareitgateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket kept as a single "theoretical arrival time" (GCRA): one CAS per request, no locks.
+// The bucket is full when that time is in the past; each token taken pushes it forward by one refill interval.
+public class TokenBucket {
+    private final long capacity;
+    private final long nanosPerToken;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.nanosPerToken = Math.round(1_000_000_000L / refillPerSecond);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // Returns 0 when the tokens were taken, otherwise how many nanos to wait before retrying.
+    public long tryConsume(int tokens, long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + tokens * nanosPerToken;
+            long overdraft = next - nowNanos - capacity * nanosPerToken;
+            if (overdraft > 0) {
+                return overdraft;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
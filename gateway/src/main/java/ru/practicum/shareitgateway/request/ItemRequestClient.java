@@ -1,13 +1,11 @@
 package ru.practicum.shareitgateway.request;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.request.dto.request.ItemRequestCreateDto;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareitgateway.client.ApiClient;
+import ru.practicum.shareitgateway.client.ServerTransports;
 
 import java.util.Map;
 
@@ -16,28 +14,24 @@ public class ItemRequestClient extends ApiClient {
 
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit.server.url}") String serverUrl,
-                             RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+    public ItemRequestClient(ServerTransports transports) {
+        super(transports, API_PREFIX);
     }
 
-    public ResponseEntity<Object> createRequest(long userId, ItemRequestCreateDto dto) {
+    public Mono<ResponseEntity<Object>> createRequest(long userId, ItemRequestCreateDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> getRequestsByUser(long userId) {
+    public Mono<ResponseEntity<Object>> getRequestsByUser(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(long userId, int from, int size) {
         Map<String, Object> params = Map.of("from", from, "size", size);
         return get("/all?from={from}&size={size}", userId, params);
     }
 
-    public ResponseEntity<Object> getRequestById(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 }
\ No newline at end of file
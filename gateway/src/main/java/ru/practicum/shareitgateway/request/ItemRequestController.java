@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.request.ItemRequestCreateDto;
 
 
@@ -18,7 +19,7 @@ public class ItemRequestController {
     private final ItemRequestClient client;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(
+    public Mono<ResponseEntity<Object>> createRequest(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestBody @Valid ItemRequestCreateDto dto) {
 
@@ -26,14 +27,14 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnRequests(
+    public Mono<ResponseEntity<Object>> getOwnRequests(
             @RequestHeader("X-Sharer-User-Id") long userId) {
 
         return client.getRequestsByUser(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(
+    public Mono<ResponseEntity<Object>> getAllRequests(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PositiveOrZero @RequestParam(defaultValue = "0") int from,
             @Positive @RequestParam(defaultValue = "10") int size) {
@@ -42,7 +43,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(
+    public Mono<ResponseEntity<Object>> getRequestById(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable long requestId) {
 
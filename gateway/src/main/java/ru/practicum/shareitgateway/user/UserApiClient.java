@@ -1,44 +1,49 @@
 package ru.practicum.shareitgateway.user;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.user.dto.request.CreateUserDto;
 import ru.practicum.shareit.user.dto.request.UpdateUserDto;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareitgateway.client.ApiClient;
+import ru.practicum.shareitgateway.client.ServerTransports;
+
+import java.util.HashMap;
+import java.util.Map;
 
 
 @Service
 public class UserApiClient extends ApiClient {
     private static final String PREFIX = "/users";
 
-    public UserApiClient(RestTemplateBuilder restTemplate, @Value("${shareit.server.url}") String shareItServerUrl) {
-        super(restTemplate
-                .uriTemplateHandler(new DefaultUriBuilderFactory(shareItServerUrl + PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+    public UserApiClient(ServerTransports transports) {
+        super(transports, PREFIX);
     }
 
-    public ResponseEntity<Object> getUserById(Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(Long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> getUsers() {
-        return get("");
+    public Mono<ResponseEntity<Object>> getUsers(int from, int size, Long cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("from", from,
+                "size", size));
+        String path = "?from={from}&size={size}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path += "&cursor={cursor}";
+        }
+        return get(path, null, parameters);
     }
 
-    public ResponseEntity<Object> createUser(CreateUserDto dto) {
+    public Mono<ResponseEntity<Object>> createUser(CreateUserDto dto) {
         return post("", dto);
     }
 
-    public ResponseEntity<Object> updateUser(Long userId, UpdateUserDto dto) {
+    public Mono<ResponseEntity<Object>> updateUser(Long userId, UpdateUserDto dto) {
         return patch("/" + userId, dto);
     }
 
-    public ResponseEntity<Object> deleteUser(Long id) {
+    public Mono<ResponseEntity<Object>> deleteUser(Long id) {
         return delete("/" + id);
     }
 }
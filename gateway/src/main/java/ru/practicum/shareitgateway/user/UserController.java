@@ -1,14 +1,19 @@
 package ru.practicum.shareitgateway.user;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.request.CreateUserDto;
 import ru.practicum.shareit.user.dto.request.UpdateUserDto;
 
 
 @RestController
 @RequestMapping(path = "/users")
+@Validated
 public class UserController {
     private final UserApiClient apiClient;
 
@@ -17,27 +22,29 @@ public class UserController {
     }
 
     @GetMapping
-    ResponseEntity<Object> getUsers() {
-        return apiClient.getUsers();
+    Mono<ResponseEntity<Object>> getUsers(@PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                    @Positive @RequestParam(defaultValue = "10") int size,
+                                    @RequestParam(required = false) Long cursor) {
+        return apiClient.getUsers(from, size, cursor);
     }
 
     @GetMapping("/{id}")
-    ResponseEntity<Object> getUserById(@PathVariable("id") Long id) {
+    Mono<ResponseEntity<Object>> getUserById(@PathVariable("id") Long id) {
         return apiClient.getUserById(id);
     }
 
     @PostMapping()
-    ResponseEntity<Object> createUser(@Valid @RequestBody CreateUserDto dto) {
+    Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody CreateUserDto dto) {
         return apiClient.createUser(dto);
     }
 
     @PatchMapping("/{id}")
-    ResponseEntity<Object> updateUser(@PathVariable("id") Long id, @Valid @RequestBody UpdateUserDto dto) {
+    Mono<ResponseEntity<Object>> updateUser(@PathVariable("id") Long id, @Valid @RequestBody UpdateUserDto dto) {
         return apiClient.updateUser(id, dto);
     }
 
     @DeleteMapping("/{id}")
-    ResponseEntity<Object> deleteUser(@PathVariable("id") Long id) {
+    Mono<ResponseEntity<Object>> deleteUser(@PathVariable("id") Long id) {
         return apiClient.deleteUser(id);
     }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -11,8 +12,15 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.client.MockRestServiceServer;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequestDto;
 import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareitgateway.client.InFlightRequests;
+import ru.practicum.shareitgateway.client.ResponseCache;
+import ru.practicum.shareitgateway.client.RestTemplateServerTransports;
+import ru.practicum.shareitgateway.client.ServerResilience;
+import ru.practicum.shareitgateway.client.ServerTransportChain;
+import ru.practicum.shareitgateway.client.WebClientServerTransports;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.client.ExpectedCount.once;
@@ -20,6 +28,8 @@ import static org.springframework.test.web.client.match.MockRestRequestMatchers.
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 
 @RestClientTest(BookingApiClient.class)
+@Import({RestTemplateServerTransports.class, WebClientServerTransports.class, ServerTransportChain.class,
+        ResponseCache.class, InFlightRequests.class, ServerResilience.class})
 @TestPropertySource(properties = {
         "shareit.server.url=http://localhost:9090"
 })
@@ -56,12 +66,34 @@ class BookingApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":1,\"status\":\"WAITING\"}"));
 
-        var response = bookingApiClient.createBooking(5L, dto);
+        var response = bookingApiClient.createBooking(5L, dto).block();
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         mockServer.verify();
     }
 
+    @Test
+    void createBookings_sendsPostToBatchEndpoint() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingCreateRequestDto> dtos = List.of(
+                BookingCreateRequestDto.builder().itemId(10L).start(start).end(start.plusDays(1)).build(),
+                BookingCreateRequestDto.builder().itemId(11L).start(start).end(start.plusDays(1)).build());
+
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/bookings/batch"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(USER_HEADER, "5"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("[{\"index\":0,\"status\":201},{\"index\":1,\"status\":404}]"));
+
+        var response = bookingApiClient.createBookings(5L, dtos).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        mockServer.verify();
+    }
+
     @Test
     void approveBooking_sendsPatchWithQueryParam() {
         mockServer.expect(once(),
@@ -72,7 +104,7 @@ class BookingApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":10,\"status\":\"APPROVED\"}"));
 
-        var response = bookingApiClient.approveBooking(7L, 10L, true);
+        var response = bookingApiClient.approveBooking(7L, 10L, true).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
@@ -88,39 +120,73 @@ class BookingApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":42,\"status\":\"WAITING\"}"));
 
-        var response = bookingApiClient.getBookingById(3L, 42L);
+        var response = bookingApiClient.getBookingById(3L, 42L).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
     }
 
     @Test
-    void getBookingsByUser_sendsGetWithoutQueryStringButNotCrashing() {
+    void getBookingsByUser_sendsGetWithStateAndPaging() {
         mockServer.expect(once(),
-                        requestTo("http://localhost:9090/bookings"))
+                        requestTo("http://localhost:9090/bookings?bookingState=WAITING&page=0&size=5"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(USER_HEADER, "9"))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("[{\"id\":1},{\"id\":2}]"));
+
+        var response = bookingApiClient.getBookingsByUser(9L, BookingState.WAITING, 0, 5, null).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        mockServer.verify();
+    }
+
+    @Test
+    void getBookingsByUser_passesCursorAndReturnsNextCursorHeader() {
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/bookings?bookingState=ALL&page=0&size=2&cursor=abc"))
                 .andExpect(method(HttpMethod.GET))
                 .andExpect(header(USER_HEADER, "9"))
                 .andRespond(withStatus(HttpStatus.OK)
                         .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Next-Cursor", "def")
                         .body("[{\"id\":1},{\"id\":2}]"));
 
-        var response = bookingApiClient.getBookingsByUser(9L, BookingState.WAITING, 0, 5);
+        var response = bookingApiClient.getBookingsByUser(9L, BookingState.ALL, 0, 2, "abc").block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("def", response.getHeaders().getFirst("X-Next-Cursor"));
         mockServer.verify();
     }
 
     @Test
-    void getBookingsByOwner_sendsGetOwnerWithoutQueryString() {
+    void getBookingsByOwner_sendsGetOwnerWithStateAndPaging() {
         mockServer.expect(once(),
-                        requestTo("http://localhost:9090/bookings/owner"))
+                        requestTo("http://localhost:9090/bookings/owner?state=ALL&from=20&size=10"))
                 .andExpect(method(HttpMethod.GET))
                 .andExpect(header(USER_HEADER, "11"))
                 .andRespond(withStatus(HttpStatus.OK)
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("[{\"id\":5}]"));
 
-        var response = bookingApiClient.getBookingsByOwner(11L, BookingState.ALL);
+        var response = bookingApiClient.getBookingsByOwner(11L, BookingState.ALL, 20, 10, null).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        mockServer.verify();
+    }
+
+    @Test
+    void getBookingsByOwner_passesCursor() {
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/bookings/owner?state=PAST&from=0&size=5&cursor=abc"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(USER_HEADER, "11"))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("[]"));
+
+        var response = bookingApiClient.getBookingsByOwner(11L, BookingState.PAST, 0, 5, "abc").block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
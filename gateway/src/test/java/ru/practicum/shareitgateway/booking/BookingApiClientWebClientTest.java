@@ -0,0 +1,11 @@
+package ru.practicum.shareitgateway.booking;
+
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareitgateway.client.MockServerWebClientConfig;
+
+// Runs every BookingApiClientTest case against the WebClient transport.
+@Import(MockServerWebClientConfig.class)
+@TestPropertySource(properties = "shareit.gateway.client=web-client")
+class BookingApiClientWebClientTest extends BookingApiClientTest {
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareitgateway.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BookingController.class)
+class BookingControllerTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookingApiClient bookingApiClient;
+
+    @Test
+    void getBookingsByUser_zeroSize_isRejected() throws Exception {
+        mockMvc.perform(get("/bookings").header(USER_HEADER, 1L).param("size", "0"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingApiClient);
+    }
+
+    @Test
+    void getBookingsByUser_negativePage_isRejected() throws Exception {
+        mockMvc.perform(get("/bookings").header(USER_HEADER, 1L).param("page", "-1"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingApiClient);
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareitgateway.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpClientConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(HttpClientConfig.class);
+
+    @Test
+    void connectionManager_usesConfiguredPoolLimits() {
+        contextRunner
+                .withPropertyValues("shareit.http-client.max-total=50", "shareit.http-client.max-per-route=20")
+                .run(context -> {
+                    PoolingHttpClientConnectionManager manager =
+                            context.getBean(PoolingHttpClientConnectionManager.class);
+                    assertEquals(50, manager.getMaxTotal());
+                    assertEquals(20, manager.getDefaultMaxPerRoute());
+                    assertEquals(Duration.ofSeconds(5),
+                            context.getBean(HttpClientProperties.class).poolAcquireTimeout());
+                });
+    }
+
+    @Test
+    void customizer_sharesOneRequestFactoryAcrossRestTemplates() {
+        contextRunner.run(context -> {
+            RestTemplateCustomizer customizer = context.getBean(RestTemplateCustomizer.class);
+            RestTemplate first = new RestTemplate();
+            RestTemplate second = new RestTemplate();
+            customizer.customize(first);
+            customizer.customize(second);
+
+            assertSame(context.getBean(HttpComponentsClientHttpRequestFactory.class), first.getRequestFactory());
+            assertSame(first.getRequestFactory(), second.getRequestFactory());
+        });
+    }
+
+    @Test
+    void poolMetrics_areBound() {
+        contextRunner.run(context -> {
+            MeterRegistry registry = new SimpleMeterRegistry();
+            context.getBean(MeterBinder.class).bindTo(registry);
+
+            assertNotNull(registry.find("httpcomponents.httpclient.pool.total.max").gauge());
+            assertNotNull(registry.find("httpcomponents.httpclient.pool.total.pending").gauge());
+            assertEquals(0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                    .tag("state", "leased").gauge().value());
+        });
+    }
+
+    @Test
+    void requestDeadline_shortensResponseTimeout() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(3000);
+                exchange.sendResponseHeaders(200, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        try {
+            contextRunner.run(context -> {
+                RestTemplate restTemplate = new RestTemplate();
+                context.getBean(RestTemplateCustomizer.class).customize(restTemplate);
+                HttpHeaders headers = new HttpHeaders();
+                headers.set(ServerResilience.DEADLINE_HEADER, String.valueOf(System.currentTimeMillis() + 300));
+                String url = "http://localhost:" + server.getAddress().getPort() + "/slow";
+
+                long started = System.nanoTime();
+                assertThrows(ResourceAccessException.class, () ->
+                        restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class));
+
+                assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(2)) < 0);
+            });
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void webClientMode_skipsPooledHttpClient() {
+        contextRunner
+                .withPropertyValues("shareit.gateway.client=web-client")
+                .run(context -> assertFalse(context.containsBean("serverHttpClient")));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareitgateway.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class InFlightRequestsTest {
+
+    private final InFlightRequests inFlightRequests = new InFlightRequests();
+    private final AtomicInteger serverCalls = new AtomicInteger();
+    private final List<Sinks.One<ResponseEntity<byte[]>>> pending = new ArrayList<>();
+
+    private final ServerTransport transport = inFlightRequests.coalescing("/items",
+            (method, path, headers, uriVariables, body) -> {
+                serverCalls.incrementAndGet();
+                Sinks.One<ResponseEntity<byte[]>> response = Sinks.one();
+                pending.add(response);
+                return response.asMono();
+            });
+
+    @Test
+    void identicalGets_shareOneServerCall() {
+        List<ResponseEntity<byte[]>> received = new ArrayList<>();
+        get("/5", 1L).subscribe(received::add);
+        get("/5", 1L).subscribe(received::add);
+        get("/5", 1L).subscribe(received::add);
+
+        ResponseEntity<byte[]> response = ResponseEntity.ok(new byte[]{1});
+        pending.getFirst().tryEmitValue(response);
+
+        assertEquals(1, serverCalls.get());
+        assertEquals(3, received.size());
+        received.forEach(r -> assertSame(response, r));
+        assertEquals(2, inFlightRequests.coalescedCount());
+    }
+
+    @Test
+    void differentUsersOrPaths_areNotCoalesced() {
+        get("/5", 1L).subscribe();
+        get("/5", 2L).subscribe();
+        get("/6", 1L).subscribe();
+
+        assertEquals(3, serverCalls.get());
+        assertEquals(0, inFlightRequests.coalescedCount());
+    }
+
+    @Test
+    void completedCall_isNotReused() {
+        get("/5", 1L).subscribe();
+        pending.getFirst().tryEmitValue(ResponseEntity.ok(new byte[0]));
+        get("/5", 1L).subscribe();
+
+        assertEquals(2, serverCalls.get());
+    }
+
+    @Test
+    void writes_areNeverCoalesced() {
+        transport.exchange(HttpMethod.PATCH, "/5", headers(1L), Map.of(), "{}").subscribe();
+        transport.exchange(HttpMethod.PATCH, "/5", headers(1L), Map.of(), "{}").subscribe();
+
+        assertEquals(2, serverCalls.get());
+    }
+
+    @Test
+    void coalescedCount_isExposedAsMetric() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        inFlightRequests.bindTo(registry);
+        get("/5", 1L).subscribe();
+        get("/5", 1L).subscribe();
+
+        assertEquals(1, registry.get("shareit.gateway.requests.coalesced").functionCounter().count());
+    }
+
+    private Mono<ResponseEntity<byte[]>> get(String path, long userId) {
+        return transport.exchange(HttpMethod.GET, path, headers(userId), Map.of(), null);
+    }
+
+    private static HttpHeaders headers(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+}
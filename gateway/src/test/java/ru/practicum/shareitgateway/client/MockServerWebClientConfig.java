@@ -0,0 +1,26 @@
+package ru.practicum.shareitgateway.client;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.client.RestTemplate;
+
+// Lets @RestClientTest suites drive the WebClient transport: the RestTemplate binds MockRestServiceServer,
+// and WebClient requests are replayed through its request factory.
+@TestConfiguration(proxyBeanMethods = false)
+public class MockServerWebClientConfig {
+
+    @Bean
+    public RestTemplate mockServerRestTemplate(RestTemplateBuilder restTemplateBuilder) {
+        return restTemplateBuilder.build();
+    }
+
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public WebClientCustomizer mockServerConnectorCustomizer(RestTemplate mockServerRestTemplate) {
+        return builder -> builder.clientConnector(new RequestFactoryConnector(mockServerRestTemplate::getRequestFactory));
+    }
+}
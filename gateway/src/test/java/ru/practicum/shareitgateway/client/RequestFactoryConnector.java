@@ -0,0 +1,61 @@
+package ru.practicum.shareitgateway.client;
+
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Reactive connector that sends each request through a blocking ClientHttpRequestFactory.
+class RequestFactoryConnector implements ClientHttpConnector {
+    private final Supplier<ClientHttpRequestFactory> requestFactory;
+
+    RequestFactoryConnector(Supplier<ClientHttpRequestFactory> requestFactory) {
+        this.requestFactory = requestFactory;
+    }
+
+    @Override
+    public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                            Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+        MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+        AtomicReference<byte[]> body = new AtomicReference<>(new byte[0]);
+        request.setWriteHandler(content -> DataBufferUtils.join(content)
+                .doOnNext(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    body.set(bytes);
+                })
+                .then());
+        return requestCallback.apply(request)
+                .then(Mono.fromCallable(() -> execute(request, body.get())));
+    }
+
+    private ClientHttpResponse execute(MockClientHttpRequest request, byte[] body) {
+        try {
+            var delegate = requestFactory.get().createRequest(request.getURI(), request.getMethod());
+            delegate.getHeaders().putAll(request.getHeaders());
+            delegate.getBody().write(body);
+            try (var response = delegate.execute()) {
+                MockClientHttpResponse result = new MockClientHttpResponse(response.getStatusCode());
+                result.getHeaders().putAll(response.getHeaders());
+                result.setBody(Mono.just(DefaultDataBufferFactory.sharedInstance.wrap(response.getBody().readAllBytes())));
+                return result;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
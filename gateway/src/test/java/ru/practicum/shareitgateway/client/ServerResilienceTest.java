@@ -0,0 +1,179 @@
+package ru.practicum.shareitgateway.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerResilienceTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withBean(CircuitBreakerRegistry.class, () -> CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                    .slidingWindowSize(4)
+                    .minimumNumberOfCalls(4)
+                    .waitDurationInOpenState(Duration.ofMinutes(1))
+                    .build()))
+            .withBean(BulkheadRegistry.class, () -> BulkheadRegistry.of(BulkheadConfig.custom()
+                    .maxConcurrentCalls(1)
+                    .maxWaitDuration(Duration.ZERO)
+                    .build()))
+            .withBean(SimpleMeterRegistry.class)
+            .withBean(ServerResilience.class)
+            .withPropertyValues("shareit.gateway.deadline=200ms");
+
+    @Test
+    void route_collapsesIdsAndDropsQuery() {
+        assertEquals("items.id", ServerResilience.route("/items", "/42"));
+        assertEquals("items.id.comment", ServerResilience.route("/items", "/42/comment"));
+        assertEquals("bookings.owner", ServerResilience.route("/bookings", "/owner?state={state}"));
+        assertEquals("users", ServerResilience.route("/users", "?from={from}&size={size}"));
+        assertEquals("users.id", ServerResilience.route("/users", "/-1"));
+        assertEquals("items.id.comment", ServerResilience.route("/items", "/+7/comment"));
+    }
+
+    @Test
+    void exchange_sendsDeadlineHeader() {
+        contextRunner.run(context -> {
+            HttpHeaders headers = new HttpHeaders();
+            ServerTransport transport = context.getBean(ServerResilience.class)
+                    .guarded("/items", (method, path, h, uriVariables, body) -> Mono.just(ResponseEntity.ok(new byte[0])));
+
+            long before = System.currentTimeMillis();
+            transport.exchange(HttpMethod.GET, "/1", headers, Map.of(), null).block();
+
+            long deadline = Long.parseLong(headers.getFirst(ServerResilience.DEADLINE_HEADER));
+            assertTrue(deadline >= before + 200 && deadline <= System.currentTimeMillis() + 200);
+        });
+    }
+
+    @Test
+    void routeDeadline_overridesDefaultDeadline() {
+        contextRunner.withPropertyValues("shareit.gateway.route-deadlines[items.import]=1m").run(context -> {
+            HttpHeaders headers = new HttpHeaders();
+            Sinks.One<ResponseEntity<byte[]>> pending = Sinks.one();
+            ServerTransport transport = context.getBean(ServerResilience.class)
+                    .guarded("/items", (method, path, h, uriVariables, body) -> pending.asMono());
+
+            long before = System.currentTimeMillis();
+            var response = transport.exchange(HttpMethod.POST, "/import", headers, Map.of(), null)
+                    .doOnSubscribe(subscription -> Mono.delay(Duration.ofMillis(400))
+                            .subscribe(tick -> pending.tryEmitValue(ResponseEntity.ok(new byte[0]))))
+                    .block();
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertTrue(Long.parseLong(headers.getFirst(ServerResilience.DEADLINE_HEADER)) >= before + 60_000);
+        });
+    }
+
+    @Test
+    void routeDeadline_raisesSlowCallThresholdOfItsCircuit() {
+        contextRunner.withPropertyValues("shareit.gateway.route-deadlines[items.import]=10m").run(context -> {
+            ServerTransport transport = context.getBean(ServerResilience.class)
+                    .guarded("/items", (method, path, headers, uriVariables, body) ->
+                            Mono.just(ResponseEntity.ok(new byte[0])));
+
+            transport.exchange(HttpMethod.POST, "/import", new HttpHeaders(), Map.of(), null).block();
+            transport.exchange(HttpMethod.GET, "/1", new HttpHeaders(), Map.of(), null).block();
+
+            CircuitBreakerRegistry registry = context.getBean(CircuitBreakerRegistry.class);
+            assertEquals(Duration.ofMinutes(10), registry.circuitBreaker("items.import").getCircuitBreakerConfig()
+                    .getSlowCallDurationThreshold());
+            assertEquals(registry.getDefaultConfig().getSlowCallDurationThreshold(),
+                    registry.circuitBreaker("items.id").getCircuitBreakerConfig().getSlowCallDurationThreshold());
+        });
+    }
+
+    @Test
+    void slowServer_isAnsweredWith503AtDeadline() {
+        contextRunner.run(context -> {
+            ServerTransport transport = context.getBean(ServerResilience.class)
+                    .guarded("/bookings", (method, path, headers, uriVariables, body) -> Mono.never());
+
+            var response = transport.exchange(HttpMethod.GET, "/owner", new HttpHeaders(), Map.of(), null).block();
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals(1, rejected(context.getBean(MeterRegistry.class), "bookings.owner", "deadline"));
+        });
+    }
+
+    @Test
+    void failingRoute_opensCircuitAndStopsCallingServer() {
+        contextRunner.run(context -> {
+            AtomicInteger serverCalls = new AtomicInteger();
+            ServerTransport transport = context.getBean(ServerResilience.class)
+                    .guarded("/items", (method, path, headers, uriVariables, body) -> Mono.fromCallable(() -> {
+                        serverCalls.incrementAndGet();
+                        return ResponseEntity.internalServerError().body(new byte[0]);
+                    }));
+
+            for (int i = 0; i < 4; i++) {
+                transport.exchange(HttpMethod.GET, "/" + i, new HttpHeaders(), Map.of(), null).block();
+            }
+            var response = transport.exchange(HttpMethod.GET, "/5", new HttpHeaders(), Map.of(), null).block();
+
+            assertEquals(4, serverCalls.get());
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals(1, rejected(context.getBean(MeterRegistry.class), "items.id", "circuit-open"));
+            assertEquals(0, rejected(context.getBean(MeterRegistry.class), "items", "circuit-open"));
+        });
+    }
+
+    @Test
+    void fullBulkhead_rejectsConcurrentCall() {
+        contextRunner.run(context -> {
+            Sinks.One<ResponseEntity<byte[]>> pending = Sinks.one();
+            ServerTransport transport = context.getBean(ServerResilience.class)
+                    .guarded("/requests", (method, path, headers, uriVariables, body) -> pending.asMono());
+
+            transport.exchange(HttpMethod.GET, "/all", new HttpHeaders(), Map.of(), null).subscribe();
+            var response = transport.exchange(HttpMethod.GET, "/all", new HttpHeaders(), Map.of(), null).block();
+            pending.tryEmitValue(ResponseEntity.ok(new byte[0]));
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertNotNull(response.getBody());
+            assertEquals(1, rejected(context.getBean(MeterRegistry.class), "requests.all", "bulkhead-full"));
+        });
+    }
+
+    @Test
+    void unreachableServer_isAnsweredWith503() {
+        contextRunner.run(context -> {
+            ServerTransport transport = context.getBean(ServerResilience.class)
+                    .guarded("/users", (method, path, headers, uriVariables, body) ->
+                            Mono.error(new ResourceAccessException("Connection refused")));
+
+            var response = transport.exchange(HttpMethod.GET, "/1", new HttpHeaders(), Map.of(), null).block();
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals(1, rejected(context.getBean(MeterRegistry.class), "users.id", "unreachable"));
+        });
+    }
+
+    private static double rejected(MeterRegistry registry, String route, String reason) {
+        var counter = registry.find("shareit.gateway.requests.rejected").tags("route", route, "reason", reason)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -4,21 +4,38 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.comments.dto.request.CommentCreateRequestDto;
 import ru.practicum.shareit.item.dto.request.ItemCreateDto;
 import ru.practicum.shareit.item.dto.request.ItemUpdateDto;
+import ru.practicum.shareitgateway.client.InFlightRequests;
+import ru.practicum.shareitgateway.client.ResponseCache;
+import ru.practicum.shareitgateway.client.RestTemplateServerTransports;
+import ru.practicum.shareitgateway.client.ServerResilience;
+import ru.practicum.shareitgateway.client.ServerTransportChain;
+import ru.practicum.shareitgateway.client.WebClientServerTransports;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.client.ExpectedCount.once;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 
 @RestClientTest(ItemApiClient.class)
+@Import({RestTemplateServerTransports.class, WebClientServerTransports.class, ServerTransportChain.class,
+        ResponseCache.class, InFlightRequests.class, ServerResilience.class})
 @TestPropertySource(properties = {
         "shareit.server.url=http://localhost:9090"
 })
@@ -53,7 +70,7 @@ class ItemApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":1,\"name\":\"item\"}"));
 
-        var response = itemApiClient.createItem(5L, dto);
+        var response = itemApiClient.createItem(5L, dto).block();
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         mockServer.verify();
@@ -75,7 +92,7 @@ class ItemApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":10,\"name\":\"updated\"}"));
 
-        var response = itemApiClient.updateItem(7L, 10L, dto);
+        var response = itemApiClient.updateItem(7L, 10L, dto).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
@@ -91,7 +108,7 @@ class ItemApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":3,\"name\":\"item3\"}"));
 
-        var response = itemApiClient.getById(9L, 3L);
+        var response = itemApiClient.getById(9L, 3L).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
@@ -107,7 +124,7 @@ class ItemApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("[{\"id\":1},{\"id\":2}]"));
 
-        var response = itemApiClient.getAllUserItems(4L);
+        var response = itemApiClient.getAllUserItems(4L).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
@@ -116,14 +133,14 @@ class ItemApiClientTest {
     @Test
     void searchItem_sendsGetWithQueryParam() {
         mockServer.expect(once(),
-                        requestTo("http://localhost:9090/items/search?text=drill"))
+                        requestTo("http://localhost:9090/items/search?text=drill&from=20&size=10"))
                 .andExpect(method(HttpMethod.GET))
                 .andExpect(header(USER_HEADER, "6"))
                 .andRespond(withStatus(HttpStatus.OK)
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("[{\"id\":5,\"name\":\"drill\"}]"));
 
-        var response = itemApiClient.searchItem(6L, "drill");
+        var response = itemApiClient.searchItem(6L, "drill", 20, 10).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
@@ -142,12 +159,54 @@ class ItemApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":1,\"text\":\"nice item\"}"));
 
-        var response = itemApiClient.createComment(2L, 10L, dto);
+        var response = itemApiClient.createComment(2L, 10L, dto).block();
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         mockServer.verify();
     }
 
+    @Test
+    void importItems_streamsBodyWithItsContentType() throws Exception {
+        String csv = "name,description,available\ndrill,cordless,true\n";
+        String report = "{\"type\":\"done\",\"processed\":1,\"imported\":1,\"failed\":0}\n";
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/items/import"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(USER_HEADER, "2"))
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string(csv))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(report));
+
+        var response = itemApiClient.importItems(2L, MediaType.valueOf("text/csv"),
+                new InputStreamResource(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(report, relayed(response.getBody()));
+        mockServer.verify();
+    }
+
+    @Test
+    void importItems_relaysReportLargerThanCodecBuffer() throws Exception {
+        String line = "{\"type\":\"error\",\"row\":1,\"error\":\"name: must not be blank\"}\n";
+        String report = line.repeat(10_000);
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/items/import"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(report));
+
+        var response = itemApiClient.importItems(2L, MediaType.APPLICATION_NDJSON,
+                new InputStreamResource(new ByteArrayInputStream("{}\n".getBytes(StandardCharsets.UTF_8)))).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(report, relayed(response.getBody()));
+        mockServer.verify();
+    }
+
     @Test
     void getById_notFound_propagatesStatusAndBody() {
         mockServer.expect(once(),
@@ -158,9 +217,68 @@ class ItemApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"error\":\"not found\"}"));
 
-        var response = itemApiClient.getById(3L, 999L);
+        var response = itemApiClient.getById(3L, 999L).block();
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         mockServer.verify();
     }
+
+    @Test
+    void getById_revalidatesCachedResponseWithEtag() {
+        String body = "{\"id\":21,\"name\":\"item21\"}";
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/items/21"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .body(body));
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/items/21"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        itemApiClient.getById(1L, 21L).block();
+        var response = itemApiClient.getById(1L, 21L).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        mockServer.verify();
+    }
+
+    @Test
+    void updateItem_invalidatesCachedItems() {
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/items/22"))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .body("{\"id\":22}"));
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/items/22"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"id\":22}"));
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/items/22"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"id\":22}"));
+
+        itemApiClient.getById(1L, 22L).block();
+        itemApiClient.updateItem(1L, 22L, ItemUpdateDto.builder().name("renamed").build()).block();
+        var response = itemApiClient.getById(1L, 22L).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        mockServer.verify();
+    }
+
+    private static String relayed(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,56 @@
+package ru.practicum.shareitgateway.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ItemController.class)
+class ItemControllerTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemApiClient itemApiClient;
+
+    @Test
+    void importItems_writesRelayedReport() throws Exception {
+        String report = "{\"type\":\"done\",\"processed\":1,\"imported\":1,\"failed\":0}\n";
+        StreamingResponseBody body = out -> out.write(report.getBytes(StandardCharsets.UTF_8));
+        given(itemApiClient.importItems(eq(2L), any(), any()))
+                .willReturn(Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body)));
+
+        MvcResult started = mockMvc.perform(post("/items/import")
+                        .header(USER_HEADER, 2L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult streaming = mockMvc.perform(asyncDispatch(started))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(streaming))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(report));
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareitgateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(new RateLimitProperties(10, 0.1, 1, 1000,
+            Duration.ofMinutes(10), List.of(
+                    new RateLimitProperties.Route(HttpMethod.GET, "/items/search", 2),
+                    new RateLimitProperties.Route(HttpMethod.POST, "/bookings", 5))));
+
+    @Test
+    void requestsWithinBudget_passThrough() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(HttpStatus.OK.value(), send("GET", "/items/1", "1").getStatus());
+        }
+    }
+
+    @Test
+    void exhaustedBucket_returns429WithRetryAfter() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            send("GET", "/items/1", "1");
+        }
+
+        MockHttpServletResponse response = send("GET", "/items/1", "1");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("10", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void routesTakeTheirConfiguredCost() throws Exception {
+        send("POST", "/bookings", "1");
+        send("GET", "/items/search", "1");
+        send("GET", "/items/search", "1");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send("GET", "/items/search", "1").getStatus());
+        assertEquals(HttpStatus.OK.value(), send("GET", "/items/1", "1").getStatus());
+
+        assertEquals(HttpStatus.OK.value(), send("POST", "/bookings", "2").getStatus());
+        assertEquals(HttpStatus.OK.value(), send("POST", "/bookings", "2").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send("POST", "/bookings", "2").getStatus());
+    }
+
+    @Test
+    void usersHaveSeparateBuckets() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            send("GET", "/items/1", "1");
+        }
+
+        assertEquals(HttpStatus.OK.value(), send("GET", "/items/1", "2").getStatus());
+    }
+
+    @Test
+    void equivalentUserIds_shareOneBucket() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            send("GET", "/items/1", "7");
+            send("GET", "/items/1", "07");
+        }
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send("GET", "/items/1", "+7").getStatus());
+    }
+
+    @Test
+    void nonNumericUserId_returns400() throws Exception {
+        MockHttpServletResponse response = send("GET", "/items/1", "abc");
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+        assertEquals("{\"error\":\"X-Sharer-User-Id must be a number\"}", response.getContentAsString());
+    }
+
+    @Test
+    void requestsWithoutUserHeader_areNotLimited() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            MockHttpServletResponse response = send("GET", "/users", null);
+            assertEquals(HttpStatus.OK.value(), response.getStatus());
+            assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+        }
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String userId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (userId != null) {
+            request.addHeader("X-Sharer-User-Id", userId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (response.getStatus() == HttpStatus.OK.value()) {
+            assertNotNull(chain.getRequest());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareitgateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void fullBucket_allowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(5, 1, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryConsume(1, 0));
+        }
+        assertEquals(SECOND, bucket.tryConsume(1, 0));
+    }
+
+    @Test
+    void tokensRefillOverTime() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryConsume(2, 0);
+
+        assertTrue(bucket.tryConsume(1, SECOND / 4) > 0);
+        assertEquals(0, bucket.tryConsume(1, SECOND / 2));
+        assertEquals(0, bucket.tryConsume(1, SECOND));
+    }
+
+    @Test
+    void expensiveRequest_waitsForAllItsTokens() {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+        bucket.tryConsume(8, 0);
+
+        assertEquals(8 * SECOND, bucket.tryConsume(10, 0));
+        assertEquals(0, bucket.tryConsume(2, 0));
+    }
+
+    @Test
+    void idleBucket_doesNotSaveMoreThanCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        long later = 100 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(1, later));
+        }
+        assertTrue(bucket.tryConsume(1, later) > 0);
+    }
+
+    @Test
+    void concurrentConsumers_neverExceedCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 0.001, 0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 5000; i++) {
+            executor.submit(() -> {
+                if (bucket.tryConsume(1, 0) == 0) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(1000, granted.get());
+    }
+}
@@ -4,12 +4,19 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.client.MockRestServiceServer;
 import ru.practicum.shareit.request.dto.request.ItemRequestCreateDto;
+import ru.practicum.shareitgateway.client.InFlightRequests;
+import ru.practicum.shareitgateway.client.ResponseCache;
+import ru.practicum.shareitgateway.client.RestTemplateServerTransports;
+import ru.practicum.shareitgateway.client.ServerResilience;
+import ru.practicum.shareitgateway.client.ServerTransportChain;
+import ru.practicum.shareitgateway.client.WebClientServerTransports;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.client.ExpectedCount.once;
@@ -17,6 +24,8 @@ import static org.springframework.test.web.client.match.MockRestRequestMatchers.
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 
 @RestClientTest(ItemRequestClient.class)
+@Import({RestTemplateServerTransports.class, WebClientServerTransports.class, ServerTransportChain.class,
+        ResponseCache.class, InFlightRequests.class, ServerResilience.class})
 @TestPropertySource(properties = {
         "shareit.server.url=http://localhost:9090"
 })
@@ -48,7 +57,7 @@ class ItemRequestApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":1,\"description\":\"need a drill\"}"));
 
-        var response = itemRequestClient.createRequest(5L, dto);
+        var response = itemRequestClient.createRequest(5L, dto).block();
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         mockServer.verify();
@@ -64,7 +73,7 @@ class ItemRequestApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("[{\"id\":1},{\"id\":2}]"));
 
-        var response = itemRequestClient.getRequestsByUser(7L);
+        var response = itemRequestClient.getRequestsByUser(7L).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
@@ -80,7 +89,7 @@ class ItemRequestApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("[{\"id\":10}]"));
 
-        var response = itemRequestClient.getAllRequests(9L, 0, 10);
+        var response = itemRequestClient.getAllRequests(9L, 0, 10).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
@@ -96,7 +105,7 @@ class ItemRequestApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":42,\"description\":\"some request\"}"));
 
-        var response = itemRequestClient.getRequestById(3L, 42L);
+        var response = itemRequestClient.getRequestById(3L, 42L).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
@@ -112,7 +121,7 @@ class ItemRequestApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"error\":\"request not found\"}"));
 
-        var response = itemRequestClient.getRequestById(3L, 999L);
+        var response = itemRequestClient.getRequestById(3L, 999L).block();
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         mockServer.verify();
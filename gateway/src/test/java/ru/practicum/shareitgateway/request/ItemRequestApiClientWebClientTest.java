@@ -0,0 +1,11 @@
+package ru.practicum.shareitgateway.request;
+
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareitgateway.client.MockServerWebClientConfig;
+
+// Runs every ItemRequestApiClientTest case against the WebClient transport.
+@Import(MockServerWebClientConfig.class)
+@TestPropertySource(properties = "shareit.gateway.client=web-client")
+class ItemRequestApiClientWebClientTest extends ItemRequestApiClientTest {
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -11,13 +12,25 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.client.MockRestServiceServer;
 import ru.practicum.shareit.user.dto.request.CreateUserDto;
 import ru.practicum.shareit.user.dto.request.UpdateUserDto;
+import ru.practicum.shareitgateway.client.InFlightRequests;
+import ru.practicum.shareitgateway.client.ResponseCache;
+import ru.practicum.shareitgateway.client.RestTemplateServerTransports;
+import ru.practicum.shareitgateway.client.ServerResilience;
+import ru.practicum.shareitgateway.client.ServerTransportChain;
+import ru.practicum.shareitgateway.client.WebClientServerTransports;
 
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.client.ExpectedCount.once;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 
 @RestClientTest(UserApiClient.class)
+@Import({RestTemplateServerTransports.class, WebClientServerTransports.class, ServerTransportChain.class,
+        ResponseCache.class, InFlightRequests.class, ServerResilience.class})
 @TestPropertySource(properties = {
         "shareit.server.url=http://localhost:9090"
 })
@@ -35,18 +48,34 @@ class UserApiClientTest {
     @Test
     void getUsers_sendsGetToUsers() {
         mockServer.expect(once(),
-                        requestTo("http://localhost:9090/users"))
+                        requestTo("http://localhost:9090/users?from=0&size=10"))
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withStatus(HttpStatus.OK)
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("[{\"id\":1,\"name\":\"u1\"}]"));
 
-        var response = userApiClient.getUsers();
+        var response = userApiClient.getUsers(0, 10, null).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
     }
 
+    @Test
+    void getUsers_withCursor_forwardsCursorAndNextCursorHeader() {
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/users?from=0&size=2&cursor=4"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Next-Cursor", "6")
+                        .body("[{\"id\":5},{\"id\":6}]"));
+
+        var response = userApiClient.getUsers(0, 2, 4L).block();
+
+        assertEquals("6", response.getHeaders().getFirst("X-Next-Cursor"));
+        mockServer.verify();
+    }
+
     @Test
     void getUserById_sendsGetToUsersId() {
         mockServer.expect(once(),
@@ -56,7 +85,7 @@ class UserApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":5,\"name\":\"user5\"}"));
 
-        var response = userApiClient.getUserById(5L);
+        var response = userApiClient.getUserById(5L).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
@@ -76,7 +105,7 @@ class UserApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":10,\"name\":\"new\"}"));
 
-        var response = userApiClient.createUser(dto);
+        var response = userApiClient.createUser(dto).block();
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         mockServer.verify();
@@ -95,7 +124,7 @@ class UserApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"id\":3,\"name\":\"updated\"}"));
 
-        var response = userApiClient.updateUser(3L, dto);
+        var response = userApiClient.updateUser(3L, dto).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
@@ -108,7 +137,7 @@ class UserApiClientTest {
                 .andExpect(method(HttpMethod.DELETE))
                 .andRespond(withStatus(HttpStatus.OK));
 
-        var response = userApiClient.deleteUser(7L);
+        var response = userApiClient.deleteUser(7L).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         mockServer.verify();
@@ -123,9 +152,28 @@ class UserApiClientTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body("{\"error\":\"user not found\"}"));
 
-        var response = userApiClient.getUserById(999L);
+        var response = userApiClient.getUserById(999L).block();
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         mockServer.verify();
     }
+
+    @Test
+    void getUserById_relaysServerBytesAndHeaders() {
+        String body = "{\"id\":5,\"name\":\"user5\"}";
+        mockServer.expect(once(),
+                        requestTo("http://localhost:9090/users/5"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Connection", "keep-alive")
+                        .body(body));
+
+        var response = userApiClient.getUserById(5L).block();
+
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey("Connection"));
+        mockServer.verify();
+    }
 }
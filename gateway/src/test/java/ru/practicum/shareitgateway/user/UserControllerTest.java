@@ -8,17 +8,19 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.request.CreateUserDto;
 import ru.practicum.shareit.user.dto.request.UpdateUserDto;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
 class UserControllerTest {
@@ -34,24 +36,24 @@ class UserControllerTest {
 
     @Test
     void getUsers_returnsOkFromClient() throws Exception {
-        given(userApiClient.getUsers()).willReturn(
+        given(userApiClient.getUsers(0, 10, null)).willReturn(Mono.just(
                 ResponseEntity.ok().body(
                         java.util.List.of(Map.of("id", 1, "name", "u1"))
-                )
+                ))
         );
 
-        mockMvc.perform(get("/users"))
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/users")).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
     }
 
     @Test
     void getUserById_returnsOkFromClient() throws Exception {
-        given(userApiClient.getUserById(5L)).willReturn(
-                ResponseEntity.ok(Map.of("id", 5, "name", "u5"))
+        given(userApiClient.getUserById(5L)).willReturn(Mono.just(
+                ResponseEntity.ok(Map.of("id", 5, "name", "u5")))
         );
 
-        mockMvc.perform(get("/users/5"))
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/users/5")).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(5));
     }
@@ -62,13 +64,17 @@ class UserControllerTest {
         dto.setName("new");
         dto.setEmail("new@mail.com");
 
-        given(userApiClient.createUser(any(CreateUserDto.class))).willReturn(
-                ResponseEntity.status(201).body(Map.of("id", 10, "name", "new"))
+        given(userApiClient.createUser(any(CreateUserDto.class))).willReturn(Mono.just(
+                ResponseEntity.status(201).body(Map.of("id", 10, "name", "new")))
         );
 
-        mockMvc.perform(post("/users")
+        MvcResult pending = mockMvc.perform(post("/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").value(10));
     }
@@ -91,24 +97,43 @@ class UserControllerTest {
         dto.setName("updated");
         dto.setEmail("updated@mail.com");
 
-        given(userApiClient.updateUser(eq(3L), any(UpdateUserDto.class))).willReturn(
-                ResponseEntity.ok(Map.of("id", 3, "name", "updated"))
+        given(userApiClient.updateUser(eq(3L), any(UpdateUserDto.class))).willReturn(Mono.just(
+                ResponseEntity.ok(Map.of("id", 3, "name", "updated")))
         );
 
-        mockMvc.perform(patch("/users/3")
+        MvcResult pending = mockMvc.perform(patch("/users/3")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(3));
     }
 
     @Test
     void deleteUser_success() throws Exception {
-        given(userApiClient.deleteUser(7L)).willReturn(
-                ResponseEntity.ok().build()
+        given(userApiClient.deleteUser(7L)).willReturn(Mono.just(
+                ResponseEntity.ok().build())
         );
 
-        mockMvc.perform(delete("/users/7"))
+        mockMvc.perform(asyncDispatch(mockMvc.perform(delete("/users/7")).andReturn()))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void getUserById_writesRelayedBytesUnchanged() throws Exception {
+        String body = "{\"id\":5,\"name\":\"user5\"}";
+        given(userApiClient.getUserById(5L)).willReturn(Mono.just(
+                ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body.getBytes(StandardCharsets.UTF_8)))
+        );
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/users/5")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(body));
+    }
 }
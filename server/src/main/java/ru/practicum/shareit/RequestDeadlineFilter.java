@@ -0,0 +1,39 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// The gateway sends its deadline as epoch millis; work it has already given up on is not started.
+@Component
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String deadline = request.getHeader(DEADLINE_HEADER);
+        if (deadline != null && isExpired(deadline)) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Request deadline exceeded\"}");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isExpired(String deadline) {
+        try {
+            return System.currentTimeMillis() >= Long.parseLong(deadline);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
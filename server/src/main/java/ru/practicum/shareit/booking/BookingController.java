@@ -5,6 +5,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequestDto;
+import ru.practicum.shareit.booking.dto.response.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.response.BookingResponseDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 
@@ -28,6 +29,14 @@ public class BookingController {
                 .body(booking);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> createBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody List<BookingCreateRequestDto> bookingCreateRequestDtos) {
+
+        return ResponseEntity.ok(bookingService.createBookings(userId, bookingCreateRequestDtos));
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingResponseDto> approveBooking(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
@@ -53,19 +62,32 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "ALL") BookingState bookingState,
-            @RequestParam(defaultValue = "10") int size) {
-        List<BookingResponseDto> bookings = bookingService.getBookingsByUser(userId, bookingState, page, size);
-        return ResponseEntity.status(HttpStatus.OK)
-                .body(bookings);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        List<BookingResponseDto> bookings = cursor == null
+                ? bookingService.getBookingsByUser(userId, bookingState, page, size)
+                : bookingService.getBookingsByUser(userId, bookingState, BookingCursor.decode(cursor), size);
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<BookingResponseDto>> getBookingsByOwner(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
-            @RequestParam(required = false, defaultValue = "ALL") BookingState state) {
+            @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        List<BookingResponseDto> bookings = cursor == null
+                ? bookingService.getBookingsByOwner(ownerId, state, from, size)
+                : bookingService.getBookingsByOwner(ownerId, state, BookingCursor.decode(cursor), size);
+        return withNextCursor(bookings, size);
+    }
 
-        List<BookingResponseDto> bookings = bookingService.getBookingsByOwner(ownerId, state);
-        return ResponseEntity.status(HttpStatus.OK)
-                .body(bookings);
+    private static ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings,
+                                                                           int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        BookingCursor.next(bookings, size)
+                .ifPresent(cursor -> response.header(BookingCursor.NEXT_CURSOR_HEADER, cursor));
+        return response.body(bookings);
     }
 }
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.response.BookingResponseDto;
+import ru.practicum.shareit.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+// Position of the last returned booking in the "start DESC, id DESC" order, opaque for clients.
+public record BookingCursor(LocalDateTime start, Long id) {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "_";
+
+    public static BookingCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static Optional<String> next(List<BookingResponseDto> page, int size) {
+        if (page.isEmpty() || page.size() < size) {
+            return Optional.empty();
+        }
+        BookingResponseDto last = page.getLast();
+        return Optional.of(new BookingCursor(last.getStart(), last.getId()).encode());
+    }
+
+    public String encode() {
+        String raw = start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
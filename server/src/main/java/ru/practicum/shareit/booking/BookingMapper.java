@@ -4,9 +4,12 @@ import ru.practicum.shareit.booking.dto.request.BookingCreateRequestDto;
 import ru.practicum.shareit.booking.dto.response.BookingResponseDto;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.response.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.dto.response.UserResponseDto;
 import ru.practicum.shareit.user.model.User;
 
 public class BookingMapper {
@@ -21,6 +24,25 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingResponseDto toDto(BookingView view) {
+        return BookingResponseDto.builder()
+                .id(view.id())
+                .booker(UserResponseDto.builder()
+                        .id(view.bookerId())
+                        .name(view.bookerName())
+                        .email(view.bookerEmail())
+                        .build())
+                .end(view.end())
+                .start(view.start())
+                .status(view.status())
+                .item(ItemResponseDto.builder()
+                        .id(view.itemId())
+                        .name(view.itemName())
+                        .description(view.itemDescription())
+                        .available(view.itemAvailable())
+                        .build())
+                .build();
+    }
 
     public static Booking bookingCreateResponseToEntity(BookingCreateRequestDto bookingCreateDto,
                                                         Item item, User booker) {
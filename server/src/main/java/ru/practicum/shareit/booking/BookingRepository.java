@@ -1,12 +1,14 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.ItemBookingIds;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -14,71 +16,161 @@ import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    @Query("SELECT b " +
-            "FROM Booking b " +
+    String AFTER_CURSOR = "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) ";
+    String NEWEST_FIRST = "ORDER BY b.start DESC, b.id DESC";
+    // exactly the columns BookingMapper.toDto needs, read as flat rows instead of managed entities
+    String SELECT_VIEW = "SELECT new ru.practicum.shareit.booking.model.BookingView(" +
+            "b.id, b.start, b.end, b.status, u.id, u.name, u.email, i.id, i.name, i.description, i.available) " +
+            "FROM Booking b JOIN b.booker u JOIN b.item i ";
+
+    @Query(SELECT_VIEW +
             "WHERE b.booker.id = :bookerId " +
-            "ORDER BY b.start DESC")
-    Page<Booking> getBookingsByBookerId(@Param("bookerId") Long bookerId, Pageable pageable);
+            NEWEST_FIRST)
+    List<BookingView> getBookingsByBookerId(@Param("bookerId") Long bookerId, Pageable pageable);
 
-    @Query("SELECT b " +
-            "FROM Booking b " +
+    @Query(SELECT_VIEW +
+            "WHERE b.booker.id = :bookerId " +
+            AFTER_CURSOR +
+            NEWEST_FIRST)
+    List<BookingView> getBookingsByBookerIdAfterCursor(@Param("bookerId") Long bookerId,
+                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                       @Param("cursorId") Long cursorId,
+                                                       Pageable pageable);
+
+    @Query(SELECT_VIEW +
             "WHERE b.booker.id = :bookerId AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
-            "ORDER BY b.start DESC")
-    List<Booking> getCurrentBookings(@Param("bookerId") Long bookerId);
+            NEWEST_FIRST)
+    List<BookingView> getCurrentBookings(@Param("bookerId") Long bookerId, Pageable pageable);
 
-    @Query("SELECT b " +
-            "FROM Booking b " +
+    @Query(SELECT_VIEW +
+            "WHERE b.booker.id = :bookerId AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
+            AFTER_CURSOR +
+            NEWEST_FIRST)
+    List<BookingView> getCurrentBookingsAfterCursor(@Param("bookerId") Long bookerId,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
+
+    @Query(SELECT_VIEW +
             "WHERE b.booker.id = :bookerId AND b.end < CURRENT_TIMESTAMP " +
-            "ORDER BY b.start DESC")
-    List<Booking> getPastBookings(@Param("bookerId") Long bookerId);
+            NEWEST_FIRST)
+    List<BookingView> getPastBookings(@Param("bookerId") Long bookerId, Pageable pageable);
 
-    @Query("SELECT b " +
-            "FROM Booking b " +
+    @Query(SELECT_VIEW +
+            "WHERE b.booker.id = :bookerId AND b.end < CURRENT_TIMESTAMP " +
+            AFTER_CURSOR +
+            NEWEST_FIRST)
+    List<BookingView> getPastBookingsAfterCursor(@Param("bookerId") Long bookerId,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Pageable pageable);
+
+    @Query(SELECT_VIEW +
             "WHERE b.booker.id = :bookerId AND b.start > CURRENT_TIMESTAMP " +
-            "ORDER BY b.start DESC")
-    List<Booking> getFutureBookings(@Param("bookerId") Long bookerId);
+            NEWEST_FIRST)
+    List<BookingView> getFutureBookings(@Param("bookerId") Long bookerId, Pageable pageable);
 
-    @Query("SELECT b " +
-            "FROM Booking b " +
+    @Query(SELECT_VIEW +
+            "WHERE b.booker.id = :bookerId AND b.start > CURRENT_TIMESTAMP " +
+            AFTER_CURSOR +
+            NEWEST_FIRST)
+    List<BookingView> getFutureBookingsAfterCursor(@Param("bookerId") Long bookerId,
+                                                   @Param("cursorStart") LocalDateTime cursorStart,
+                                                   @Param("cursorId") Long cursorId,
+                                                   Pageable pageable);
+
+    @Query(SELECT_VIEW +
             "WHERE b.booker.id = :bookerId AND b.status = :status " +
-            "ORDER BY b.start DESC")
-    List<Booking> getBookingsByStatus(@Param("bookerId") Long bookerId, @Param("status") BookingStatus status);
-
-    @Query("SELECT b " +
-            "FROM Booking b " +
-            "JOIN FETCH b.item " +
-            "WHERE b.item.owner.id = :ownerId " +
-            "ORDER BY b.start DESC")
-    List<Booking> getBookingsByOwner(@Param("ownerId") Long ownerId);
+            NEWEST_FIRST)
+    List<BookingView> getBookingsByStatus(@Param("bookerId") Long bookerId, @Param("status") BookingStatus status,
+                                          Pageable pageable);
 
-    @Query("SELECT b " +
-            "FROM Booking b " +
-            "JOIN FETCH b.item " +
-            "WHERE b.item.owner.id = :ownerId AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
-            "ORDER BY b.start DESC")
-    List<Booking> getCurrentBookingsByOwner(@Param("ownerId") Long ownerId);
-
-    @Query("SELECT b " +
-            "FROM Booking b " +
-            "JOIN FETCH b.item " +
-            "WHERE b.item.owner.id = :ownerId AND b.end < CURRENT_TIMESTAMP " +
-            "ORDER BY b.start DESC")
-    List<Booking> getPastBookingsByOwner(@Param("ownerId") Long ownerId);
-
-    @Query("SELECT b " +
-            "FROM Booking b " +
-            "JOIN FETCH b.item " +
-            "WHERE b.item.owner.id = :ownerId AND b.start > CURRENT_TIMESTAMP " +
-            "ORDER BY b.start DESC")
-    List<Booking> getFutureBookingsByOwner(@Param("ownerId") Long ownerId);
-
-    @Query("SELECT b " +
-            "FROM Booking b " +
-            "JOIN FETCH b.item " +
-            "WHERE b.item.owner.id = :ownerId AND b.status = :status " +
-            "ORDER BY b.start DESC")
-    List<Booking> getBookingsByOwnerAndStatus(@Param("ownerId") Long ownerId,
-                                              @Param("status") BookingStatus status);
+    @Query(SELECT_VIEW +
+            "WHERE b.booker.id = :bookerId AND b.status = :status " +
+            AFTER_CURSOR +
+            NEWEST_FIRST)
+    List<BookingView> getBookingsByStatusAfterCursor(@Param("bookerId") Long bookerId,
+                                                     @Param("status") BookingStatus status,
+                                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                                     @Param("cursorId") Long cursorId,
+                                                     Pageable pageable);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.owner.id = :ownerId " +
+            NEWEST_FIRST)
+    List<BookingView> getBookingsByOwner(@Param("ownerId") Long ownerId,
+                                         Pageable pageable);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.owner.id = :ownerId " +
+            AFTER_CURSOR +
+            NEWEST_FIRST)
+    List<BookingView> getBookingsByOwnerAfterCursor(@Param("ownerId") Long ownerId,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.owner.id = :ownerId AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
+            NEWEST_FIRST)
+    List<BookingView> getCurrentBookingsByOwner(@Param("ownerId") Long ownerId,
+                                                Pageable pageable);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.owner.id = :ownerId AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
+            AFTER_CURSOR +
+            NEWEST_FIRST)
+    List<BookingView> getCurrentBookingsByOwnerAfterCursor(@Param("ownerId") Long ownerId,
+                                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                                           @Param("cursorId") Long cursorId,
+                                                           Pageable pageable);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.owner.id = :ownerId AND b.end < CURRENT_TIMESTAMP " +
+            NEWEST_FIRST)
+    List<BookingView> getPastBookingsByOwner(@Param("ownerId") Long ownerId,
+                                             Pageable pageable);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.owner.id = :ownerId AND b.end < CURRENT_TIMESTAMP " +
+            AFTER_CURSOR +
+            NEWEST_FIRST)
+    List<BookingView> getPastBookingsByOwnerAfterCursor(@Param("ownerId") Long ownerId,
+                                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                                        @Param("cursorId") Long cursorId,
+                                                        Pageable pageable);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.owner.id = :ownerId AND b.start > CURRENT_TIMESTAMP " +
+            NEWEST_FIRST)
+    List<BookingView> getFutureBookingsByOwner(@Param("ownerId") Long ownerId,
+                                               Pageable pageable);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.owner.id = :ownerId AND b.start > CURRENT_TIMESTAMP " +
+            AFTER_CURSOR +
+            NEWEST_FIRST)
+    List<BookingView> getFutureBookingsByOwnerAfterCursor(@Param("ownerId") Long ownerId,
+                                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                                          @Param("cursorId") Long cursorId,
+                                                          Pageable pageable);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.owner.id = :ownerId AND b.status = :status " +
+            NEWEST_FIRST)
+    List<BookingView> getBookingsByOwnerAndStatus(@Param("ownerId") Long ownerId,
+                                                  @Param("status") BookingStatus status,
+                                                  Pageable pageable);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.owner.id = :ownerId AND b.status = :status " +
+            AFTER_CURSOR +
+            NEWEST_FIRST)
+    List<BookingView> getBookingsByOwnerAndStatusAfterCursor(@Param("ownerId") Long ownerId,
+                                                             @Param("status") BookingStatus status,
+                                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                                             @Param("cursorId") Long cursorId,
+                                                             Pageable pageable);
 
     @Query("SELECT b " +
             "FROM Booking b " +
@@ -98,17 +190,42 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             LocalDateTime start
     );
 
-    @Query("SELECT b " +
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
             "FROM Booking b " +
-            "WHERE b.item.id IN :itemIds AND b.status = 'APPROVED' AND b.end < :now " +
-            "ORDER BY b.end DESC")
-    List<Booking> getLastApprovedByItemIds(@Param("itemIds") List<Long> itemIds,
-                                           @Param("now") LocalDateTime now);
+            "WHERE b.item.id IN :itemIds AND b.status IN :statuses AND b.start < :until AND b.end > :from")
+    List<BookingInterval> findIntervalsOverlapping(@Param("itemIds") Collection<Long> itemIds,
+                                                   @Param("statuses") Collection<BookingStatus> statuses,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("until") LocalDateTime until);
 
-    @Query("SELECT b " +
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
             "FROM Booking b " +
-            "WHERE b.item.id IN :itemIds AND b.status = 'APPROVED' AND b.start > :now " +
-            "ORDER BY b.start ASC")
-    List<Booking> getNextApprovedByItemIds(@Param("itemIds") List<Long> itemIds,
-                                           @Param("now") LocalDateTime now);
+            "WHERE b.status IN :statuses AND b.end > :after")
+    List<BookingInterval> findIntervalsEndingAfter(@Param("statuses") Collection<BookingStatus> statuses,
+                                                   @Param("after") LocalDateTime after);
+
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :after")
+    List<BookingInterval> findItemIntervalsEndingAfter(@Param("itemId") Long itemId,
+                                                       @Param("statuses") Collection<BookingStatus> statuses,
+                                                       @Param("after") LocalDateTime after);
+
+    // one row per item that has a past or upcoming approved booking; ties broken by id for a stable answer
+    @Query(nativeQuery = true,
+            value = "SELECT r.item_id AS itemId, " +
+                    "MAX(CASE WHEN r.is_past = 1 AND r.last_rank = 1 THEN r.id END) AS lastBookingId, " +
+                    "MAX(CASE WHEN r.is_past = 0 AND r.next_rank = 1 THEN r.id END) AS nextBookingId " +
+                    "FROM (SELECT b.item_id, b.id, " +
+                    "CASE WHEN b.end_date < :now THEN 1 ELSE 0 END AS is_past, " +
+                    "ROW_NUMBER() OVER (PARTITION BY b.item_id, CASE WHEN b.end_date < :now THEN 1 ELSE 0 END " +
+                    "ORDER BY b.end_date DESC, b.id DESC) AS last_rank, " +
+                    "ROW_NUMBER() OVER (PARTITION BY b.item_id, CASE WHEN b.end_date < :now THEN 1 ELSE 0 END " +
+                    "ORDER BY b.start_date ASC, b.id ASC) AS next_rank " +
+                    "FROM bookings b " +
+                    "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' " +
+                    "AND (b.end_date < :now OR b.start_date > :now)) r " +
+                    "GROUP BY r.item_id")
+    List<ItemBookingIds> findLastAndNextApprovedBookingIds(@Param("itemIds") Collection<Long> itemIds,
+                                                           @Param("now") LocalDateTime now);
 }
@@ -1,35 +1,56 @@
 package ru.practicum.shareit.booking;
 
-import jakarta.transaction.Transactional;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequestDto;
+import ru.practicum.shareit.booking.dto.response.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.response.BookingResponseDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.lock.ItemBookingLocks;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.DataConflictException;
 import ru.practicum.shareit.exceptions.NotEnoughPrivilegesException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private static final String OVERLAP_CONSTRAINT = "ex_booking_item_period";
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingLocks itemBookingLocks;
 
-    public BookingService(BookingRepository bookingRepository,
-                          UserRepository userRepository, ItemRepository itemRepository) {
+    public BookingService(BookingRepository bookingRepository, UserRepository userRepository,
+                          ItemRepository itemRepository, BookingIntervalIndex bookingIntervalIndex,
+                          ItemBookingLocks itemBookingLocks) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.itemBookingLocks = itemBookingLocks;
     }
 
     @Transactional
@@ -39,7 +60,8 @@ public class BookingService {
             throw new BadRequestException("Start time have to be before end time");
         }
 
-        User booker = userRepository.findById(userId)
+        User booker = userRepository.findViewById(userId)
+                .map(UserMapper::toEntity)
                 .orElseThrow(() -> new NotFoundException("There is no user with id: " + userId));
         Item item = itemRepository.findById(bookingCreateDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("There is no item with id: " + bookingCreateDto.getItemId()));
@@ -50,19 +72,133 @@ public class BookingService {
         if (item.getOwner().getId().equals(userId)) {
             throw new NotEnoughPrivilegesException("User " + userId + " is owner of item " + item.getId());
         }
-        List<BookingStatus> blockingStatuses = List.of(BookingStatus.APPROVED, BookingStatus.WAITING);
-        boolean overlaps = bookingRepository.existsByItem_IdAndStatusInAndStartLessThanAndEndGreaterThan(
-                item.getId(), blockingStatuses, bookingCreateDto.getEnd(), bookingCreateDto.getStart()
-        );
+        itemBookingLocks.lockUntilTransactionEnds(item.getId());
+        boolean overlaps = bookingIntervalIndex
+                .findOverlap(item.getId(), bookingCreateDto.getStart(), bookingCreateDto.getEnd())
+                .orElseGet(() -> bookingRepository.existsByItem_IdAndStatusInAndStartLessThanAndEndGreaterThan(
+                        item.getId(), BookingIntervalIndex.BLOCKING_STATUSES,
+                        bookingCreateDto.getEnd(), bookingCreateDto.getStart()
+                ));
         if (overlaps) {
             throw new BadRequestException("Your booking is overlapping for item: " + item.getId());
         }
         Booking booking = BookingMapper.bookingCreateResponseToEntity(bookingCreateDto, item, booker);
-        Booking saved = bookingRepository.save(booking);
+        Booking saved;
+        try {
+            saved = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BadRequestException("Your booking is overlapping for item: " + item.getId());
+            }
+            throw e;
+        }
+        bookingIntervalIndex.add(saved);
         return BookingMapper.toDto(saved);
 
     }
 
+    // One user lookup, one item lookup and one overlap query for the whole batch; entries are checked in order
+    // against stored bookings and against the entries accepted before them.
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(Long userId, List<BookingCreateRequestDto> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("A batch can hold at most " + MAX_BATCH_SIZE + " bookings");
+        }
+        User booker = userRepository.findViewById(userId)
+                .map(UserMapper::toEntity)
+                .orElseThrow(() -> new NotFoundException("There is no user with id: " + userId));
+        Map<Long, Item> items = itemRepository.findAllById(requests.stream()
+                        .map(BookingCreateRequestDto::getItemId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        itemBookingLocks.lockAllUntilTransactionEnds(items.keySet());
+        Map<Long, List<BookingInterval>> taken = takenIntervals(requests, items.keySet());
+
+        List<BookingBatchResultDto> results = new ArrayList<>(requests.size());
+        List<Booking> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookingCreateRequestDto request = requests.get(i);
+            Item item = items.get(request.getItemId());
+            if (!request.getEnd().isAfter(request.getStart())) {
+                results.add(rejected(i, HttpStatus.BAD_REQUEST, "Start time have to be before end time"));
+            } else if (item == null) {
+                results.add(rejected(i, HttpStatus.NOT_FOUND, "There is no item with id: " + request.getItemId()));
+            } else if (!item.getAvailable()) {
+                results.add(rejected(i, HttpStatus.BAD_REQUEST, "Item " + item.getId() + " is not available"));
+            } else if (item.getOwner().getId().equals(userId)) {
+                results.add(rejected(i, HttpStatus.FORBIDDEN,
+                        "User " + userId + " is owner of item " + item.getId()));
+            } else if (overlaps(taken.get(item.getId()), request)) {
+                results.add(rejected(i, HttpStatus.BAD_REQUEST,
+                        "Your booking is overlapping for item: " + item.getId()));
+            } else {
+                taken.computeIfAbsent(item.getId(), id -> new ArrayList<>())
+                        .add(new BookingInterval(null, item.getId(), request.getStart(), request.getEnd()));
+                accepted.add(BookingMapper.bookingCreateResponseToEntity(request, item, booker));
+                acceptedIndexes.add(i);
+                results.add(null);
+            }
+        }
+
+        List<Booking> saved;
+        try {
+            saved = bookingRepository.saveAll(accepted);
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BadRequestException("The batch overlaps a booking created concurrently");
+            }
+            throw e;
+        }
+        for (int k = 0; k < saved.size(); k++) {
+            bookingIntervalIndex.add(saved.get(k));
+            results.set(acceptedIndexes.get(k), BookingBatchResultDto.builder()
+                    .index(acceptedIndexes.get(k))
+                    .status(HttpStatus.CREATED.value())
+                    .booking(BookingMapper.toDto(saved.get(k)))
+                    .build());
+        }
+        return results;
+    }
+
+    private Map<Long, List<BookingInterval>> takenIntervals(List<BookingCreateRequestDto> requests,
+                                                           Collection<Long> itemIds) {
+        List<BookingCreateRequestDto> periods = requests.stream()
+                .filter(request -> request.getEnd().isAfter(request.getStart()))
+                .toList();
+        if (itemIds.isEmpty() || periods.isEmpty()) {
+            return new HashMap<>();
+        }
+        LocalDateTime from = periods.stream().map(BookingCreateRequestDto::getStart)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime until = periods.stream().map(BookingCreateRequestDto::getEnd)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        return bookingRepository.findIntervalsOverlapping(itemIds, BookingIntervalIndex.BLOCKING_STATUSES, from, until)
+                .stream()
+                .collect(Collectors.groupingBy(BookingInterval::itemId, HashMap::new,
+                        Collectors.toCollection(ArrayList::new)));
+    }
+
+    private static boolean overlaps(List<BookingInterval> intervals, BookingCreateRequestDto request) {
+        return intervals != null && intervals.stream()
+                .anyMatch(interval -> interval.start().isBefore(request.getEnd())
+                        && interval.end().isAfter(request.getStart()));
+    }
+
+    private static BookingBatchResultDto rejected(int index, HttpStatus status, String error) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(OVERLAP_CONSTRAINT);
+    }
+
     @Transactional
     public BookingResponseDto approveBooking(Long userId, Long bookingId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
@@ -70,7 +206,7 @@ public class BookingService {
         if (BookingStatus.WAITING != booking.getStatus()) {
             throw new DataConflictException("Booking with id: " + bookingId + " is not in waiting state");
         }
-        if (!userRepository.existsById(userId)) {
+        if (!userRepository.findViewById(userId).isPresent()) {
             throw new BadRequestException("there is no such user with id: " + userId);
         }
 
@@ -78,15 +214,19 @@ public class BookingService {
             throw new NotEnoughPrivilegesException("User " + userId + " is not the owner of item " + booking.getItem().getId());
         }
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        if (!approved) {
+            bookingIntervalIndex.remove(saved);
+        }
+        return BookingMapper.toDto(saved);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public BookingResponseDto getBookingById(Long userId, Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("There is no booking with id: " + bookingId));
 
-        if (!userRepository.existsById(userId)) {
+        if (!userRepository.findViewById(userId).isPresent()) {
             throw new BadRequestException("there is no such user with id: " + userId);
         }
 
@@ -96,36 +236,84 @@ public class BookingService {
         return BookingMapper.toDto(booking);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<BookingResponseDto> getBookingsByUser(Long userId, BookingState state, int page, int size) {
-        userRepository.findById(userId)
+        userRepository.findViewById(userId)
                 .orElseThrow(() -> new NotFoundException("There is no user with id: " + userId));
         PageRequest pageRequest = PageRequest.of(page, size);
-        List<Booking> bookings = switch (state) {
-            case CURRENT -> bookingRepository.getCurrentBookings(userId);
-            case PAST -> bookingRepository.getPastBookings(userId);
-            case FUTURE -> bookingRepository.getFutureBookings(userId);
-            case WAITING -> bookingRepository.getBookingsByStatus(userId, BookingStatus.WAITING);
-            case REJECTED -> bookingRepository.getBookingsByStatus(userId, BookingStatus.REJECTED);
-            default -> bookingRepository.getBookingsByBookerId(userId, pageRequest).getContent();
+        List<BookingView> bookings = switch (state) {
+            case CURRENT -> bookingRepository.getCurrentBookings(userId, pageRequest);
+            case PAST -> bookingRepository.getPastBookings(userId, pageRequest);
+            case FUTURE -> bookingRepository.getFutureBookings(userId, pageRequest);
+            case WAITING -> bookingRepository.getBookingsByStatus(userId, BookingStatus.WAITING, pageRequest);
+            case REJECTED -> bookingRepository.getBookingsByStatus(userId, BookingStatus.REJECTED, pageRequest);
+            default -> bookingRepository.getBookingsByBookerId(userId, pageRequest);
+        };
+        return bookings.stream()
+                .map(BookingMapper::toDto)
+                .toList();
+    }
 
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getBookingsByUser(Long userId, BookingState state, BookingCursor cursor, int size) {
+        userRepository.findViewById(userId)
+                .orElseThrow(() -> new NotFoundException("There is no user with id: " + userId));
+        PageRequest limit = PageRequest.of(0, size);
+        List<BookingView> bookings = switch (state) {
+            case CURRENT -> bookingRepository.getCurrentBookingsAfterCursor(
+                    userId, cursor.start(), cursor.id(), limit);
+            case PAST -> bookingRepository.getPastBookingsAfterCursor(
+                    userId, cursor.start(), cursor.id(), limit);
+            case FUTURE -> bookingRepository.getFutureBookingsAfterCursor(
+                    userId, cursor.start(), cursor.id(), limit);
+            case WAITING -> bookingRepository.getBookingsByStatusAfterCursor(
+                    userId, BookingStatus.WAITING, cursor.start(), cursor.id(), limit);
+            case REJECTED -> bookingRepository.getBookingsByStatusAfterCursor(
+                    userId, BookingStatus.REJECTED, cursor.start(), cursor.id(), limit);
+            default -> bookingRepository.getBookingsByBookerIdAfterCursor(
+                    userId, cursor.start(), cursor.id(), limit);
         };
         return bookings.stream()
                 .map(BookingMapper::toDto)
                 .toList();
     }
 
-    @Transactional
-    public List<BookingResponseDto> getBookingsByOwner(Long userId, BookingState state) {
-        userRepository.findById(userId)
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getBookingsByOwner(Long userId, BookingState state, int from, int size) {
+        userRepository.findViewById(userId)
+                .orElseThrow(() -> new NotFoundException("There is no user with id: " + userId));
+        PageRequest pageRequest = PageRequest.of(from / size, size);
+        List<BookingView> bookings = switch (state) {
+            case WAITING -> bookingRepository.getBookingsByOwnerAndStatus(userId, BookingStatus.WAITING, pageRequest);
+            case REJECTED -> bookingRepository.getBookingsByOwnerAndStatus(userId, BookingStatus.REJECTED, pageRequest);
+            case CURRENT -> bookingRepository.getCurrentBookingsByOwner(userId, pageRequest);
+            case PAST -> bookingRepository.getPastBookingsByOwner(userId, pageRequest);
+            case FUTURE -> bookingRepository.getFutureBookingsByOwner(userId, pageRequest);
+            default -> bookingRepository.getBookingsByOwner(userId, pageRequest);
+        };
+        return bookings.stream()
+                .map(BookingMapper::toDto)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getBookingsByOwner(Long userId, BookingState state, BookingCursor cursor, int size) {
+        userRepository.findViewById(userId)
                 .orElseThrow(() -> new NotFoundException("There is no user with id: " + userId));
-        List<Booking> bookings = switch (state) {
-            case WAITING -> bookingRepository.getBookingsByOwnerAndStatus(userId, BookingStatus.WAITING);
-            case REJECTED -> bookingRepository.getBookingsByOwnerAndStatus(userId, BookingStatus.REJECTED);
-            case CURRENT -> bookingRepository.getCurrentBookingsByOwner(userId);
-            case PAST -> bookingRepository.getPastBookingsByOwner(userId);
-            case FUTURE -> bookingRepository.getFutureBookingsByOwner(userId);
-            default -> bookingRepository.getBookingsByOwner(userId);
+        PageRequest limit = PageRequest.of(0, size);
+        List<BookingView> bookings = switch (state) {
+            case WAITING -> bookingRepository.getBookingsByOwnerAndStatusAfterCursor(
+                    userId, BookingStatus.WAITING, cursor.start(), cursor.id(), limit);
+            case REJECTED -> bookingRepository.getBookingsByOwnerAndStatusAfterCursor(
+                    userId, BookingStatus.REJECTED, cursor.start(), cursor.id(), limit);
+            case CURRENT -> bookingRepository.getCurrentBookingsByOwnerAfterCursor(
+                    userId, cursor.start(), cursor.id(), limit);
+            case PAST -> bookingRepository.getPastBookingsByOwnerAfterCursor(
+                    userId, cursor.start(), cursor.id(), limit);
+            case FUTURE -> bookingRepository.getFutureBookingsByOwnerAfterCursor(
+                    userId, cursor.start(), cursor.id(), limit);
+            default -> bookingRepository.getBookingsByOwnerAfterCursor(
+                    userId, cursor.start(), cursor.id(), limit);
         };
         return bookings.stream()
                 .map(BookingMapper::toDto)
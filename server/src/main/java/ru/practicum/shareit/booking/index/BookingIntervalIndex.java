@@ -0,0 +1,214 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Intervals of one item never overlap, so an overlap check is a single floor lookup by start.
+// Only bookings made through this instance are seen: disable it when several servers share a database.
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    public static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.APPROVED, BookingStatus.WAITING);
+
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final Map<Long, ItemIntervals> intervalsByItemId = new ConcurrentHashMap<>();
+    // invalidated item id -> count of changes seen since, so a reload racing with a commit is discarded
+    private final Map<Long, Long> invalidatedItemIds = new ConcurrentHashMap<>();
+    private volatile LocalDateTime horizon;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.interval-index.enabled:true}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("Booking interval index is disabled, overlaps are checked in the database");
+            return;
+        }
+        LocalDateTime loadedFrom = LocalDateTime.now();
+        List<BookingInterval> intervals = bookingRepository.findIntervalsEndingAfter(BLOCKING_STATUSES, loadedFrom);
+
+        intervalsByItemId.clear();
+        invalidatedItemIds.clear();
+        for (BookingInterval interval : intervals) {
+            if (!invalidatedItemIds.containsKey(interval.itemId()) && !addInterval(interval)) {
+                invalidate(interval.itemId());
+            }
+        }
+        horizon = loadedFrom;
+        log.info("Booking interval index warmed with {} intervals for {} items",
+                intervals.size(), intervalsByItemId.size());
+    }
+
+    public Optional<Boolean> findOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime loadedFrom = horizon;
+        if (loadedFrom == null || start.isBefore(loadedFrom) || invalidatedItemIds.containsKey(itemId)) {
+            return Optional.empty();
+        }
+        ItemIntervals intervals = intervalsByItemId.get(itemId);
+        return Optional.of(intervals != null && intervals.overlaps(start, end));
+    }
+
+    public void add(Booking booking) {
+        BookingInterval interval = new BookingInterval(booking.getId(), booking.getItem().getId(),
+                booking.getStart(), booking.getEnd());
+        afterCommit(() -> {
+            if (invalidatedItemIds.computeIfPresent(interval.itemId(), (id, changes) -> changes + 1) != null) {
+                return;
+            }
+            if (!addInterval(interval)) {
+                log.warn("Booking {} overlaps indexed bookings of item {}, falling back to the database",
+                        interval.bookingId(), interval.itemId());
+                invalidate(interval.itemId());
+            }
+        });
+    }
+
+    public void remove(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+        afterCommit(() -> {
+            if (invalidatedItemIds.computeIfPresent(itemId, (id, changes) -> changes + 1) != null) {
+                return;
+            }
+            ItemIntervals intervals = intervalsByItemId.get(itemId);
+            if (intervals != null) {
+                intervals.remove(bookingId);
+            }
+        });
+    }
+
+    public void invalidate(Long itemId) {
+        invalidatedItemIds.merge(itemId, 0L, (changes, none) -> changes + 1);
+        intervalsByItemId.remove(itemId);
+    }
+
+    // Finished bookings can no longer overlap anything the index answers for, so the horizon moves to now and
+    // they are dropped. Invalidated items are read back from the database and answered from the index again
+    // once their bookings no longer overlap each other.
+    @Scheduled(initialDelayString = "${shareit.booking.interval-index.maintenance-interval:PT10M}",
+            fixedDelayString = "${shareit.booking.interval-index.maintenance-interval:PT10M}")
+    public void maintain() {
+        if (!enabled || horizon == null) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now();
+        horizon = cutoff;
+        for (Long itemId : intervalsByItemId.keySet()) {
+            intervalsByItemId.computeIfPresent(itemId, (id, intervals) -> {
+                intervals.removeEndingBefore(cutoff);
+                return intervals.isEmpty() ? null : intervals;
+            });
+        }
+        invalidatedItemIds.keySet().forEach(itemId -> reload(itemId, cutoff));
+    }
+
+    private void reload(Long itemId, LocalDateTime after) {
+        Long changesBefore = invalidatedItemIds.get(itemId);
+        if (changesBefore == null) {
+            return;
+        }
+        ItemIntervals reloaded = new ItemIntervals();
+        for (BookingInterval interval : bookingRepository.findItemIntervalsEndingAfter(itemId, BLOCKING_STATUSES,
+                after)) {
+            if (!reloaded.add(interval)) {
+                return;
+            }
+        }
+        invalidatedItemIds.computeIfPresent(itemId, (id, changes) -> {
+            if (!changes.equals(changesBefore)) {
+                return changes;
+            }
+            intervalsByItemId.put(itemId, reloaded);
+            return null;
+        });
+    }
+
+    // inside compute, so maintenance cannot drop an item's intervals while one is being added to them
+    private boolean addInterval(BookingInterval interval) {
+        boolean[] added = {false};
+        intervalsByItemId.compute(interval.itemId(), (itemId, intervals) -> {
+            ItemIntervals target = intervals == null ? new ItemIntervals() : intervals;
+            added[0] = target.add(interval);
+            return target;
+        });
+        return added[0];
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class ItemIntervals {
+        private final NavigableMap<LocalDateTime, BookingInterval> byStart = new TreeMap<>();
+        private final Map<Long, LocalDateTime> startByBookingId = new HashMap<>();
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, BookingInterval> latestStartingBefore = byStart.lowerEntry(end);
+            return latestStartingBefore != null && latestStartingBefore.getValue().end().isAfter(start);
+        }
+
+        synchronized boolean add(BookingInterval interval) {
+            if (startByBookingId.containsKey(interval.bookingId())) {
+                return true;
+            }
+            if (overlaps(interval.start(), interval.end())) {
+                return false;
+            }
+            byStart.put(interval.start(), interval);
+            startByBookingId.put(interval.bookingId(), interval.start());
+            return true;
+        }
+
+        synchronized void removeEndingBefore(LocalDateTime cutoff) {
+            Iterator<BookingInterval> intervals = byStart.values().iterator();
+            while (intervals.hasNext()) {
+                BookingInterval interval = intervals.next();
+                if (!interval.start().isBefore(cutoff)) {
+                    return;
+                }
+                if (!interval.end().isAfter(cutoff)) {
+                    intervals.remove();
+                    startByBookingId.remove(interval.bookingId());
+                }
+            }
+        }
+
+        synchronized boolean isEmpty() {
+            return byStart.isEmpty();
+        }
+
+        synchronized void remove(Long bookingId) {
+            LocalDateTime start = startByBookingId.remove(bookingId);
+            if (start != null) {
+                byStart.remove(start);
+            }
+        }
+    }
+}
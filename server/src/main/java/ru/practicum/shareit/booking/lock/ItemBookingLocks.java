@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class ItemBookingLocks {
+    private final Lock[] stripes;
+
+    public ItemBookingLocks(@Value("${shareit.booking.lock-stripes:256}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Lock stripe count has to be positive: " + stripeCount);
+        }
+        stripes = new Lock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // The lock is released only when the surrounding transaction completes, so the next booking
+    // of the same item is checked against this one already committed.
+    public void lockUntilTransactionEnds(Long itemId) {
+        Lock lock = stripeFor(itemId);
+        lock.lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.unlock();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    // Stripes are always taken in index order, so two batches sharing items cannot deadlock.
+    public void lockAllUntilTransactionEnds(Collection<Long> itemIds) {
+        itemIds.stream()
+                .sorted(Comparator.comparingInt(this::stripeIndex))
+                .forEach(this::lockUntilTransactionEnds);
+    }
+
+    private Lock stripeFor(Long itemId) {
+        return stripes[stripeIndex(itemId)];
+    }
+
+    private int stripeIndex(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+}
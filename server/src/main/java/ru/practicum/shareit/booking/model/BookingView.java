@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+// Flat row with exactly the columns of BookingResponseDto, selected without hydrating entities.
+public record BookingView(Long id,
+                          LocalDateTime start,
+                          LocalDateTime end,
+                          BookingStatus status,
+                          Long bookerId,
+                          String bookerName,
+                          String bookerEmail,
+                          Long itemId,
+                          String itemName,
+                          String itemDescription,
+                          Boolean itemAvailable) {
+}
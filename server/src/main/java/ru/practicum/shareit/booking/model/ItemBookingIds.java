@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.model;
+
+// Last finished and next upcoming approved booking of an item, either may be null.
+public interface ItemBookingIds {
+    Long getItemId();
+
+    Long getLastBookingId();
+
+    Long getNextBookingId();
+}
@@ -1,25 +1,42 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.comments.dto.request.CommentCreateRequestDto;
 import ru.practicum.shareit.item.comments.dto.response.CommentResponseDto;
 import ru.practicum.shareit.item.dto.request.ItemCreateDto;
 import ru.practicum.shareit.item.dto.request.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.response.ItemImportReportDto;
 import ru.practicum.shareit.item.dto.response.ItemResponseDto;
+import ru.practicum.shareit.item.imports.ItemImportFormat;
+import ru.practicum.shareit.item.imports.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
+    private final ObjectMapper objectMapper;
 
-    public ItemController(@Qualifier("ItemDbService") ItemService itemService) {
+    public ItemController(@Qualifier("ItemDbService") ItemService itemService, ItemImportService itemImportService,
+                          ObjectMapper objectMapper) {
         this.itemService = itemService;
+        this.itemImportService = itemImportService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -29,6 +46,33 @@ public class ItemController {
                 .body(itemService.createItem(userId, dto));
     }
 
+    // the body is read while rows are saved; the NDJSON report is flushed after every saved chunk and must bypass the
+    // ETag filter's buffer, or no progress reaches the client before the import ends
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ItemImportFormat.TEXT_CSV_VALUE})
+    public ResponseEntity<StreamingResponseBody> importItems(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body,
+            HttpServletRequest request) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        ItemImportFormat format = ItemImportFormat.of(contentType);
+        itemImportService.checkOwner(userId);
+        StreamingResponseBody report = out -> itemImportService.importItems(userId, format, body, line -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(line));
+                out.write('\n');
+                if (!ItemImportReportDto.ERROR.equals(line.getType())) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(report);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemResponseDto> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                       @PathVariable("itemId") Long itemId,
@@ -52,9 +96,11 @@ public class ItemController {
 
     @GetMapping("/search")
     public ResponseEntity<List<ItemResponseDto>> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                             @RequestParam("text") String text) {
+                                                             @RequestParam("text") String text,
+                                                             @RequestParam(defaultValue = "0") int from,
+                                                             @RequestParam(defaultValue = "10") int size) {
         return ResponseEntity.status(HttpStatus.OK)
-                .body(itemService.searchItem(userId, text));
+                .body(itemService.searchItem(userId, text, from, size));
     }
 
     @PostMapping("/{itemId}/comment")
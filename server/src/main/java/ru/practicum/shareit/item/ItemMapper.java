@@ -6,6 +6,7 @@ import ru.practicum.shareit.item.comments.repository.CommentMapper;
 import ru.practicum.shareit.item.dto.request.ItemCreateDto;
 import ru.practicum.shareit.item.dto.response.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDetails;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
@@ -40,6 +41,18 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemResponseDto itemDetailsToResponseDto(ItemDetails item, List<Comment> comments) {
+        return ItemResponseDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .lastBooking(item.getLastBookingId())
+                .nextBooking(item.getNextBookingId())
+                .comments(comments.stream().map(CommentMapper::toDto).toList())
+                .build();
+    }
+
     public static ItemResponseDto itemToResponseDtoWithAllFields(Item item,
                                                                  Long lastBookingId,
                                                                  Long nextBookingId,
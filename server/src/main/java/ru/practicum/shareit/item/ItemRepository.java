@@ -1,26 +1,67 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDetails;
+import ru.practicum.shareit.item.model.ItemSnapshot;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByOwnerId(Long ownerId);
-
+    // no JOIN FETCH: Hibernate cannot rebuild joined fetches from a query cache hit; the one owner comes from L2
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT i " +
             "FROM Item i " +
-            "WHERE (i.name ILIKE %:text% OR i.description ILIKE %:text%) AND i.available = true")
-    List<Item> searchItems(@Param("text") String text);
+            "WHERE i.owner.id = :ownerId " +
+            "ORDER BY i.id")
+    List<Item> findByOwnerId(@Param("ownerId") Long ownerId);
 
     @Query("SELECT i " +
             "FROM Item i " +
-            "WHERE i.available = true " +
-            "AND i.owner.id = :ownerId"
-    )
-    List<Item> searchAvailableItems(@Param("ownerId") Long ownerId);
+            "WHERE i.owner.id = :ownerId AND i.available = true " +
+            "AND (LOWER(i.name) LIKE :pattern ESCAPE '\\' OR LOWER(i.description) LIKE :pattern ESCAPE '\\') " +
+            "ORDER BY i.id")
+    List<Item> searchAvailableByPattern(@Param("ownerId") Long ownerId, @Param("pattern") String pattern,
+                                        Pageable pageable);
+
+    // search_vector and the trigram indexes exist only in the PostgreSQL migrations
+    @Query(nativeQuery = true,
+            value = "SELECT i.* " +
+                    "FROM items i " +
+                    "WHERE i.owner_id = :ownerId AND i.available " +
+                    "AND (i.search_vector @@ plainto_tsquery('simple', :text) " +
+                    "OR i.name ILIKE :pattern ESCAPE '\\' OR i.description ILIKE :pattern ESCAPE '\\') " +
+                    "ORDER BY ts_rank(i.search_vector, plainto_tsquery('simple', :text)) DESC, i.id")
+    List<Item> fullTextSearchAvailable(@Param("ownerId") Long ownerId, @Param("text") String text,
+                                       @Param("pattern") String pattern, Pageable pageable);
+
+    // bypasses the second-level cache on purpose: the caller check and the booking ids come with the item in one
+    // round trip, where a cached item still needed two more; ties broken by id as in the owner's item list
+    @Query(nativeQuery = true,
+            value = "SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available, " +
+                    "EXISTS (SELECT 1 FROM users u WHERE u.id = :userId) AS callerExists, " +
+                    "CASE WHEN i.owner_id = :userId THEN (SELECT b.id FROM bookings b " +
+                    "WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.end_date < :now " +
+                    "ORDER BY b.end_date DESC, b.id DESC LIMIT 1) END AS lastBookingId, " +
+                    "CASE WHEN i.owner_id = :userId THEN (SELECT b.id FROM bookings b " +
+                    "WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date > :now " +
+                    "ORDER BY b.start_date ASC, b.id ASC LIMIT 1) END AS nextBookingId " +
+                    "FROM items i " +
+                    "WHERE i.id = :itemId")
+    Optional<ItemDetails> findDetailsById(@Param("itemId") Long itemId, @Param("userId") Long userId,
+                                          @Param("now") LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.item.model.ItemSnapshot(i.id, i.owner.id, i.available, i.name, i.description) " +
+            "FROM Item i")
+    List<ItemSnapshot> findAllSnapshots();
 
     List<Item> findByItemRequest_Id(Long requestId);
 
@@ -1,12 +1,24 @@
 package ru.practicum.shareit.item.comments.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.comments.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItem_Id(Long itemId);
+    @Query("SELECT c " +
+            "FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id = :itemId " +
+            "ORDER BY c.created")
+    List<Comment> findAllByItem_Id(@Param("itemId") Long itemId);
 
-    List<Comment> findByItemIdIn(List<Long> itemIds);
+    @Query("SELECT c " +
+            "FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id IN :itemIds " +
+            "ORDER BY c.created")
+    List<Comment> findByItemIdIn(@Param("itemIds") List<Long> itemIds);
 }
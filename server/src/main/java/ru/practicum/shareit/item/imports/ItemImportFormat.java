@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.imports;
+
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exceptions.BadRequestException;
+
+// Body formats of POST /items/import: one ItemCreateDto JSON object per line, or CSV with a header row
+// naming the columns name, description, available and requestId.
+public enum ItemImportFormat {
+    NDJSON,
+    CSV;
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public static ItemImportFormat of(MediaType contentType) {
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return NDJSON;
+        }
+        if (MediaType.valueOf(TEXT_CSV_VALUE).isCompatibleWith(contentType)) {
+            return CSV;
+        }
+        throw new BadRequestException("Unsupported import format: " + contentType);
+    }
+}
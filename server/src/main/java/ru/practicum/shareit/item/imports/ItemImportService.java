@@ -0,0 +1,252 @@
+package ru.practicum.shareit.item.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.request.ItemCreateDto;
+import ru.practicum.shareit.item.dto.response.ItemImportReportDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSnapshot;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Rows are parsed and validated while the body is read and saved in chunks, each chunk in its own transaction
+// with one lookup of the requests it references, so memory does not grow with the size of the catalog.
+@Service
+@Slf4j
+public class ItemImportService {
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final int chunkSize;
+
+    public ItemImportService(ItemRepository itemRepository, UserRepository userRepository,
+                             ItemRequestRepository itemRequestRepository, ApplicationEventPublisher eventPublisher,
+                             TransactionTemplate transactionTemplate, EntityManager entityManager, Validator validator,
+                             ObjectMapper objectMapper, @Value("${shareit.item.import.chunk-size:500}") int chunkSize) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+                .build();
+        this.chunkSize = chunkSize;
+    }
+
+    public void checkOwner(Long userId) {
+        if (userRepository.findViewById(userId).isEmpty()) {
+            throw new NotFoundException("There is no such user with id: " + userId);
+        }
+    }
+
+    // report receives refused rows as they are found, running totals after each saved chunk and the final totals
+    public ItemImportReportDto importItems(Long userId, ItemImportFormat format, InputStream input,
+                                           Consumer<ItemImportReportDto> report) throws IOException {
+        Totals totals = new Totals();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        Consumer<Row> onRow = row -> {
+            totals.processed++;
+            String error = row.error() != null ? row.error() : violations(row.item());
+            if (error != null) {
+                totals.failed++;
+                report.accept(refused(row.number(), error));
+                return;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                saveChunk(userId, chunk, totals, report);
+                chunk.clear();
+            }
+        };
+
+        try {
+            switch (format) {
+                case NDJSON -> readNdjson(input, onRow);
+                case CSV -> readCsv(input, onRow);
+            }
+        } catch (JsonProcessingException e) {
+            // a broken CSV quote leaves no way to find the next row
+            totals.failed++;
+            report.accept(refused(totals.processed + 1,
+                    "Import stopped, body is malformed: " + e.getOriginalMessage()));
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(userId, chunk, totals, report);
+        }
+
+        ItemImportReportDto done = totals.report(ItemImportReportDto.DONE);
+        log.info("Imported {} of {} items for user {}", done.getImported(), done.getProcessed(), userId);
+        report.accept(done);
+        return done;
+    }
+
+    private void readNdjson(InputStream input, Consumer<Row> onRow) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long number = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            number++;
+            Row row;
+            try {
+                ItemCreateDto item = objectMapper.readValue(line, ItemCreateDto.class);
+                row = item == null ? new Row(number, null, "Row is not a JSON object") : new Row(number, item, null);
+            } catch (JsonProcessingException e) {
+                row = new Row(number, null, "Malformed row: " + e.getOriginalMessage());
+            }
+            onRow.accept(row);
+        }
+    }
+
+    private void readCsv(InputStream input, Consumer<Row> onRow) throws IOException {
+        try (MappingIterator<Map<String, String>> rows = csvMapper.readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(input)) {
+            long number = 0;
+            while (rows.hasNextValue()) {
+                Map<String, String> values = rows.nextValue();
+                number++;
+                // an empty cell is a missing value, so validation reports it as such
+                values.values().removeIf(String::isEmpty);
+                Row row;
+                try {
+                    row = new Row(number, objectMapper.convertValue(values, ItemCreateDto.class), null);
+                } catch (IllegalArgumentException e) {
+                    String message = e.getCause() instanceof JsonProcessingException cause
+                            ? cause.getOriginalMessage() : e.getMessage();
+                    row = new Row(number, null, "Malformed row: " + message);
+                }
+                onRow.accept(row);
+            }
+        }
+    }
+
+    private String violations(ItemCreateDto item) {
+        Set<ConstraintViolation<ItemCreateDto>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void saveChunk(Long userId, List<Row> chunk, Totals totals, Consumer<ItemImportReportDto> report) {
+        List<ItemImportReportDto> refused = new ArrayList<>();
+        int saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                refused.clear();
+                Set<Long> requestIds = chunk.stream()
+                        .map(row -> row.item().getRequestId())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Map.of()
+                        : itemRequestRepository.findAllById(requestIds).stream()
+                        .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+                User owner = userRepository.getReferenceById(userId);
+
+                List<Item> items = new ArrayList<>(chunk.size());
+                for (Row row : chunk) {
+                    Long requestId = row.item().getRequestId();
+                    if (requestId != null && !requests.containsKey(requestId)) {
+                        refused.add(refused(row.number(), "There is no request with id: " + requestId));
+                        continue;
+                    }
+                    Item item = requestId == null ? ItemMapper.itemCreateRequestToEntity(row.item())
+                            : ItemMapper.itemCreateRequestToEntity(row.item(), requests.get(requestId));
+                    item.setOwner(owner);
+                    items.add(item);
+                }
+                itemRepository.saveAll(items);
+                itemRepository.flush();
+                items.forEach(item -> eventPublisher.publishEvent(new ItemChangedEvent(ItemSnapshot.of(item))));
+                return items.size();
+            });
+        } catch (DataAccessException e) {
+            log.warn("Import chunk of {} items for user {} was rolled back", chunk.size(), userId, e);
+            refused.clear();
+            chunk.forEach(row -> refused.add(refused(row.number(), "Chunk could not be saved: "
+                    + e.getMostSpecificCause().getMessage())));
+            saved = 0;
+        } finally {
+            // with open-in-view every chunk shares the request's persistence context, which would otherwise keep
+            // each imported item managed until the report is written
+            entityManager.clear();
+        }
+
+        refused.forEach(report);
+        totals.imported += saved;
+        totals.failed += refused.size();
+        report.accept(totals.report(ItemImportReportDto.PROGRESS));
+    }
+
+    private static ItemImportReportDto refused(long row, String error) {
+        return ItemImportReportDto.builder()
+                .type(ItemImportReportDto.ERROR)
+                .row(row)
+                .error(error)
+                .build();
+    }
+
+    // number is the 1-based position of the row in the body, not counting blank lines or the CSV header
+    private record Row(long number, ItemCreateDto item, String error) {
+    }
+
+    private static final class Totals {
+        private long processed;
+        private long imported;
+        private long failed;
+
+        private ItemImportReportDto report(String type) {
+            return ItemImportReportDto.builder()
+                    .type(type)
+                    .processed(processed)
+                    .imported(imported)
+                    .failed(failed)
+                    .build();
+        }
+    }
+}
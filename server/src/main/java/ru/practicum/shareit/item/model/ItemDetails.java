@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.model;
+
+// An item as getById shows it, read in one statement: whether the caller exists, and the last finished and next
+// upcoming approved booking ids, which are set only when the caller owns the item and may be null.
+public interface ItemDetails {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Boolean getCallerExists();
+
+    Long getLastBookingId();
+
+    Long getNextBookingId();
+}
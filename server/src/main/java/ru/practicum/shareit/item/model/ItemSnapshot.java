@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.model;
+
+// Searchable fields of an item, detached from the persistence context.
+public record ItemSnapshot(Long id, Long ownerId, Boolean available, String name, String description) {
+
+    public static ItemSnapshot of(Item item) {
+        return new ItemSnapshot(item.getId(), item.getOwner().getId(), item.getAvailable(),
+                item.getName(), item.getDescription());
+    }
+}
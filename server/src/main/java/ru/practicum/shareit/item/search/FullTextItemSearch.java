@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+// PostgreSQL search: ranked tsvector word matches plus trigram-indexed substring matches.
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "full-text")
+@RequiredArgsConstructor
+public class FullTextItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> searchAvailable(Long ownerId, String text, int from, int size) {
+        return itemRepository.fullTextSearchAvailable(ownerId, text, ItemSearch.containsPattern(text),
+                PageRequest.of(from / size, size));
+    }
+}
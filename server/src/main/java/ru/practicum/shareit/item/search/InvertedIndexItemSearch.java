@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// In-process search for databases without full-text extensions: every query token must prefix a word
+// of the name or description. Only changes made through this instance are seen.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "inverted-index")
+public class InvertedIndexItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private InvertedItemIndex index = new InvertedItemIndex();
+    private List<ItemSnapshot> changedDuringWarmUp;
+    private volatile boolean ready;
+
+    public InvertedIndexItemSearch(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        lock.writeLock().lock();
+        try {
+            changedDuringWarmUp = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        InvertedItemIndex loaded = new InvertedItemIndex();
+        itemRepository.findAllSnapshots().forEach(loaded::put);
+
+        lock.writeLock().lock();
+        try {
+            changedDuringWarmUp.forEach(loaded::put);
+            changedDuringWarmUp = null;
+            index = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item search index warmed with {} items", loaded.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            index.put(event.item());
+            if (changedDuringWarmUp != null) {
+                changedDuringWarmUp.add(event.item());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> searchAvailable(Long ownerId, String text, int from, int size) {
+        if (!ready) {
+            return itemRepository.searchAvailableByPattern(ownerId, ItemSearch.containsPattern(text),
+                    PageRequest.of(from / size, size));
+        }
+        List<Long> ids;
+        lock.readLock().lock();
+        try {
+            ids = index.search(ownerId, text, from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.ItemSnapshot;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+// Token -> sorted item ids. Not thread-safe, InvertedIndexItemSearch guards it.
+public class InvertedItemIndex {
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long[] NO_IDS = new long[0];
+
+    private final NavigableMap<String, PostingList> postingsByToken = new TreeMap<>();
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(NON_WORD.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    public void put(ItemSnapshot item) {
+        remove(item.id());
+        Set<String> tokens = new HashSet<>(tokenize(item.name()));
+        tokens.addAll(tokenize(item.description()));
+        for (String token : tokens) {
+            postingsByToken.computeIfAbsent(token, t -> new PostingList()).add(item.id());
+        }
+        entriesById.put(item.id(), new Entry(item.ownerId(), Boolean.TRUE.equals(item.available()), tokens));
+    }
+
+    public void remove(Long itemId) {
+        Entry entry = entriesById.remove(itemId);
+        if (entry == null) {
+            return;
+        }
+        for (String token : entry.tokens()) {
+            PostingList postings = postingsByToken.get(token);
+            postings.remove(itemId);
+            if (postings.isEmpty()) {
+                postingsByToken.remove(token);
+            }
+        }
+    }
+
+    public int size() {
+        return entriesById.size();
+    }
+
+    // Ids of the owner's available items having, for every query token, a token starting with it; ascending.
+    public List<Long> search(Long ownerId, String text, int from, int size) {
+        List<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+        long[] matches = null;
+        for (String queryToken : queryTokens) {
+            long[] withPrefix = idsWithPrefix(queryToken);
+            matches = matches == null ? withPrefix : intersect(matches, withPrefix);
+            if (matches.length == 0) {
+                return List.of();
+            }
+        }
+
+        List<Long> page = new ArrayList<>(size);
+        int skipped = 0;
+        for (long id : matches) {
+            Entry entry = entriesById.get(id);
+            if (!entry.available() || !entry.ownerId().equals(ownerId)) {
+                continue;
+            }
+            if (skipped++ < from) {
+                continue;
+            }
+            page.add(id);
+            if (page.size() == size) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    private long[] idsWithPrefix(String prefix) {
+        Collection<PostingList> lists = postingsByToken.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .values();
+        long[] union = NO_IDS;
+        for (PostingList postings : lists) {
+            union = union(union, postings.ids, postings.size);
+        }
+        return union;
+    }
+
+    private static long[] union(long[] left, long[] right, int rightSize) {
+        long[] result = new long[left.length + rightSize];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < left.length || j < rightSize) {
+            long next;
+            if (j == rightSize || (i < left.length && left[i] < right[j])) {
+                next = left[i++];
+            } else if (i == left.length || right[j] < left[i]) {
+                next = right[j++];
+            } else {
+                next = left[i++];
+                j++;
+            }
+            result[n++] = next;
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (right[j] < left[i]) {
+                j++;
+            } else {
+                result[n++] = left[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private record Entry(Long ownerId, boolean available, Set<String> tokens) {
+    }
+
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
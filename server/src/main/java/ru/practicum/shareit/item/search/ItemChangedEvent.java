@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.ItemSnapshot;
+
+public record ItemChangedEvent(ItemSnapshot item) {
+}
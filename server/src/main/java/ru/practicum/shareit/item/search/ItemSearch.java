@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Locale;
+
+// Finds available items of an owner whose name or description contains the text, best matches first.
+public interface ItemSearch {
+
+    List<Item> searchAvailable(Long ownerId, String text, int from, int size);
+
+    static String containsPattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
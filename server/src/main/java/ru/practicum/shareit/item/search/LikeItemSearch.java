@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+// Portable substring search for databases without full-text support (H2 in tests).
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "like", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LikeItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> searchAvailable(Long ownerId, String text, int from, int size) {
+        return itemRepository.searchAvailableByPattern(ownerId, ItemSearch.containsPattern(text),
+                PageRequest.of(from / size, size));
+    }
+}
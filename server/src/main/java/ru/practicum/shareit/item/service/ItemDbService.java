@@ -3,10 +3,12 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingIds;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
@@ -20,14 +22,20 @@ import ru.practicum.shareit.item.dto.request.ItemCreateDto;
 import ru.practicum.shareit.item.dto.request.ItemUpdateDto;
 import ru.practicum.shareit.item.dto.response.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDetails;
+import ru.practicum.shareit.item.model.ItemSnapshot;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Qualifier("ItemDbService")
@@ -41,12 +49,15 @@ public class ItemDbService implements ItemService {
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearch itemSearch;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Transactional
     @Override
     public ItemResponseDto createItem(Long userId, ItemCreateDto dto) {
-        User itemOwner = userRepository.findById(userId)
+        User itemOwner = userRepository.findViewById(userId)
+                .map(UserMapper::toEntity)
                 .orElseThrow(() -> new NotFoundException("There is no such user with id: " + userId));
 
         Item item;
@@ -62,6 +73,7 @@ public class ItemDbService implements ItemService {
         item.setOwner(itemOwner);
 
         Item saved = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(ItemSnapshot.of(saved)));
 
         return ItemMapper.itemToResponseDto(saved);
     }
@@ -69,7 +81,7 @@ public class ItemDbService implements ItemService {
     @Transactional
     @Override
     public ItemResponseDto updateItem(Long userId, Long itemId, ItemUpdateDto dto) {
-        if (userRepository.findById(userId).isEmpty()) {
+        if (userRepository.findViewById(userId).isEmpty()) {
             throw new NotFoundException("There is no such user with id: " + userId);
         }
 
@@ -87,34 +99,20 @@ public class ItemDbService implements ItemService {
         }
 
         Item saved = itemRepository.save(currentItem);
+        eventPublisher.publishEvent(new ItemChangedEvent(ItemSnapshot.of(saved)));
         return ItemMapper.itemToResponseDto(saved);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public ItemResponseDto getById(Long userId, Long itemId) {
-        if (userRepository.findById(userId).isEmpty()) {
-            throw new NotFoundException("There is no such user with id: " + userId);
-        }
-
-        Item item = itemRepository.findById(itemId)
+        ItemDetails item = itemRepository.findDetailsById(itemId, userId, LocalDateTime.now())
                 .orElseThrow(() -> new NotFoundException("There is no such item with id: " + itemId));
-
-        List<Comment> comments = commentRepository.findAllByItem_Id(itemId);
-
-        Long lastId = null;
-        Long nextId = null;
-
-        if (Objects.equals(item.getOwner().getId(), userId)) {
-            LocalDateTime now = LocalDateTime.now();
-
-            List<Booking> lastList = bookingRepository.getLastApprovedByItemIds(List.of(itemId), now);
-            if (!lastList.isEmpty()) lastId = lastList.getFirst().getId();
-
-            List<Booking> nextList = bookingRepository.getNextApprovedByItemIds(List.of(itemId), now);
-            if (!nextList.isEmpty()) nextId = nextList.getFirst().getId();
+        if (!item.getCallerExists()) {
+            throw new NotFoundException("There is no such user with id: " + userId);
         }
 
-        return ItemMapper.itemToResponseDtoWithAllFields(item, lastId, nextId, comments);
+        return ItemMapper.itemDetailsToResponseDto(item, commentRepository.findAllByItem_Id(itemId));
     }
 
     @Transactional(readOnly = true)
@@ -128,60 +126,45 @@ public class ItemDbService implements ItemService {
         Map<Long, List<Comment>> commentsByItemId = commentRepository.findByItemIdIn(itemIds).stream()
                 .collect(Collectors.groupingBy(c -> c.getItem().getId()));
 
-        LocalDateTime now = LocalDateTime.now();
-
-        Map<Long, Long> lastBookingIdByItemId = new HashMap<>();
-        for (Booking b : bookingRepository.getLastApprovedByItemIds(itemIds, now)) {
-            Long iid = b.getItem().getId();
-            lastBookingIdByItemId.putIfAbsent(iid, b.getId());
-        }
-
-        Map<Long, Long> nextBookingIdByItemId = new HashMap<>();
-        for (Booking b : bookingRepository.getNextApprovedByItemIds(itemIds, now)) {
-            Long iid = b.getItem().getId();
-            nextBookingIdByItemId.putIfAbsent(iid, b.getId());
-        }
+        Map<Long, ItemBookingIds> bookingIdsByItemId = bookingRepository
+                .findLastAndNextApprovedBookingIds(itemIds, LocalDateTime.now()).stream()
+                .collect(Collectors.toMap(ItemBookingIds::getItemId, Function.identity()));
 
         return items.stream()
-                .map(it -> ItemMapper.itemToResponseDtoWithAllFields(
-                        it,
-                        lastBookingIdByItemId.get(it.getId()),
-                        nextBookingIdByItemId.get(it.getId()),
-                        commentsByItemId.getOrDefault(it.getId(), List.of())
-                ))
+                .map(it -> {
+                    ItemBookingIds ids = bookingIdsByItemId.get(it.getId());
+                    return ItemMapper.itemToResponseDtoWithAllFields(
+                            it,
+                            ids == null ? null : ids.getLastBookingId(),
+                            ids == null ? null : ids.getNextBookingId(),
+                            commentsByItemId.getOrDefault(it.getId(), List.of())
+                    );
+                })
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<ItemResponseDto> searchItem(Long userId, String text) {
+    public List<ItemResponseDto> searchItem(Long userId, String text, int from, int size) {
         String safeString = text == null ? "" : text.trim();
         if (safeString.isEmpty()) return Collections.emptyList();
 
-        if (userRepository.findById(userId).isEmpty()) {
+        if (userRepository.findViewById(userId).isEmpty()) {
             throw new NotFoundException("There is no such user with id: " + userId);
         }
-        List<Item> userItems = itemRepository.searchAvailableItems(userId);
-        if (userItems.isEmpty()) return Collections.emptyList();
-
-        String safeStringLowerCase = safeString.toLowerCase(Locale.ROOT);
 
-        return userItems.stream()
-                .filter(item -> containsIgnoreCase(item.getName(), safeStringLowerCase)
-                        || containsIgnoreCase(item.getDescription(), safeStringLowerCase))
+        return itemSearch.searchAvailable(userId, safeString, from, size).stream()
                 .map(ItemMapper::itemToResponseDto)
                 .toList();
     }
 
-    private static boolean containsIgnoreCase(String field, String strLower) {
-        return field != null && field.toLowerCase(Locale.ROOT).contains(strLower);
-    }
-
     @Transactional
     @Override
     public CommentResponseDto createComment(Long userId, Long itemId, CommentCreateRequestDto dto) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("There is no item with id: " + itemId));
-        User author = userRepository.findById(userId)
+        User author = userRepository.findViewById(userId)
+                .map(UserMapper::toEntity)
                 .orElseThrow(() -> new NotFoundException("There is no user with id: " + userId));
 
         List<Booking> bookings = bookingRepository.getCompletedBookings(itemId, userId);
@@ -18,7 +18,7 @@ public interface ItemService {
 
     List<ItemResponseDto> getAllUserItems(Long userId);
 
-    List<ItemResponseDto> searchItem(Long userId, String text);
+    List<ItemResponseDto> searchItem(Long userId, String text, int from, int size);
 
     List<CommentResponseDto> getCommentsForItem(Long itemId);
 
@@ -15,6 +15,7 @@ import ru.practicum.shareit.request.dto.request.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.response.ItemRequestResponseDto;
 import ru.practicum.shareit.request.dto.response.ItemRequestResponseWithItemsDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
@@ -84,7 +85,8 @@ public class ItemRequestService {
     }
 
     private User getUserOrThrow(Long id) {
-        return userRepository.findById(id)
+        return userRepository.findViewById(id)
+                .map(UserMapper::toEntity)
                 .orElseThrow(() -> new NotFoundException("User not found with id " + id));
     }
 
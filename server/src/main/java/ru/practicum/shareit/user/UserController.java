@@ -1,29 +1,62 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.request.CreateUserDto;
 import ru.practicum.shareit.user.dto.request.UpdateUserDto;
 import ru.practicum.shareit.user.dto.response.UserResponseDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/users")
 public class UserController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(@Qualifier("UserDbService") UserService userService) {
+    public UserController(@Qualifier("UserDbService") UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    ResponseEntity<List<UserResponseDto>> getUsers() {
+    ResponseEntity<List<UserResponseDto>> getUsers(@RequestParam(defaultValue = "0") int from,
+                                                   @RequestParam(defaultValue = "10") int size,
+                                                   @RequestParam(required = false) Long cursor) {
+        List<UserResponseDto> users = cursor == null
+                ? userService.getUsers(from, size)
+                : userService.getUsers(cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (!users.isEmpty() && users.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(users.getLast().getId()));
+        }
+        return response.body(users);
+    }
+
+    // one JSON document per line, written while the database cursor is walked
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamUsers() {
+        StreamingResponseBody body = out -> userService.streamUsers(user -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
         return ResponseEntity.status(HttpStatus.OK)
-                .body(userService.getUsers());
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
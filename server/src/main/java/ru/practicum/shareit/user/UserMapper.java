@@ -4,6 +4,7 @@ import ru.practicum.shareit.user.dto.request.CreateUserDto;
 import ru.practicum.shareit.user.dto.request.UpdateUserDto;
 import ru.practicum.shareit.user.dto.response.UserResponseDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserView;
 
 public class UserMapper {
     public static UserResponseDto toDto(User user) {
@@ -14,6 +15,18 @@ public class UserMapper {
                 .build();
     }
 
+    public static UserResponseDto toDto(UserView user) {
+        return UserResponseDto.builder()
+                .id(user.id())
+                .name(user.name())
+                .email(user.email())
+                .build();
+    }
+
+    public static User toEntity(UserView user) {
+        return new User(user.id(), user.name(), user.email());
+    }
+
     public static User createUserDtoToEntity(CreateUserDto dto) {
         return User.builder()
                 .id(null)
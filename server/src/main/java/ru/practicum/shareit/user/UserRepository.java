@@ -1,8 +1,52 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserView;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    String USERS_CACHE = "users";
+
     void deleteUserById(Long id);
+
+    // cached as an immutable row: callers get their own detached User, never a shared entity
+    @Cacheable(cacheNames = USERS_CACHE, unless = "#result == null")
+    @Query("SELECT new ru.practicum.shareit.user.model.UserView(u.id, u.name, u.email) " +
+            "FROM User u " +
+            "WHERE u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(u) > 0 " +
+            "FROM User u " +
+            "WHERE LOWER(u.email) = LOWER(:email) " +
+            "AND u.id <> :id")
+    boolean existsByEmailIgnoreCaseAndIdNot(@Param("email") String email, @Param("id") Long id);
+
+    @Query("SELECT u " +
+            "FROM User u " +
+            "ORDER BY u.id")
+    List<User> findPage(Pageable pageable);
+
+    @Query("SELECT u " +
+            "FROM User u " +
+            "WHERE u.id > :afterId " +
+            "ORDER BY u.id")
+    List<User> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ru.practicum.shareit.user.model.UserView(u.id, u.name, u.email) " +
+            "FROM User u " +
+            "ORDER BY u.id")
+    Stream<UserView> streamAll();
 }
@@ -0,0 +1,5 @@
+package ru.practicum.shareit.user.model;
+
+// Detached row for exports: streamed projections do not pile up in the persistence context.
+public record UserView(Long id, String name, String email) {
+}
@@ -1,8 +1,12 @@
 package ru.practicum.shareit.user.service;
 
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.DataConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.UserMapper;
@@ -11,13 +15,19 @@ import ru.practicum.shareit.user.dto.request.CreateUserDto;
 import ru.practicum.shareit.user.dto.request.UpdateUserDto;
 import ru.practicum.shareit.user.dto.response.UserResponseDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserView;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Qualifier("UserDbService")
 public class UserDbService implements UserService {
+    // ux_users_email_lower on PostgreSQL, uq_user_email where the case-insensitive index is not available
+    private static final List<String> EMAIL_CONSTRAINTS = List.of("ux_users_email_lower", "uq_user_email");
+
     private final UserRepository userRepository;
 
     public UserDbService(UserRepository userRepository) {
@@ -26,51 +36,63 @@ public class UserDbService implements UserService {
 
     @Override
     public UserResponseDto getUserById(Long id) {
-        User user = userRepository.findById(id).orElseThrow(
-                () -> new NotFoundException("There is no such user with id: " + id)
-        );
-        return UserMapper.toDto(user);
+        return userRepository.findViewById(id)
+                .map(UserMapper::toDto)
+                .orElseThrow(() -> new NotFoundException("There is no such user with id: " + id));
+    }
+
+    @Override
+    public List<UserResponseDto> getUsers(int from, int size) {
+        return userRepository.findPage(PageRequest.of(from / size, size)).stream()
+                .map(UserMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    public List<UserResponseDto> getUsers(Long afterId, int size) {
+        return userRepository.findPageAfter(afterId, PageRequest.of(0, size)).stream()
+                .map(UserMapper::toDto)
+                .toList();
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<UserResponseDto> getUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream().map(UserMapper::toDto).toList();
+    public void streamUsers(Consumer<UserResponseDto> consumer) {
+        try (Stream<UserView> users = userRepository.streamAll()) {
+            users.map(UserMapper::toDto).forEach(consumer);
+        }
     }
 
     @Override
     public UserResponseDto createUser(CreateUserDto createUserDto) {
-        User user = userRepository.save(UserMapper.createUserDtoToEntity(createUserDto));
+        User user = saveWithUniqueEmail(UserMapper.createUserDtoToEntity(createUserDto));
         return UserMapper.toDto(user);
     }
 
+    @CacheEvict(cacheNames = UserRepository.USERS_CACHE, key = "#id")
     @Transactional
     @Override
     public UserResponseDto updateUser(Long id, UpdateUserDto updateUserDto) {
-
-        if (!isUserExist(id)) {
-            throw new NotFoundException("There is no such user with id: " + id);
-        }
-        User currentUser = userRepository.getById(id);
+        User currentUser = userRepository.findById(id).orElseThrow(
+                () -> new NotFoundException("There is no such user with id: " + id)
+        );
         User fromDtoUser = UserMapper.updateUserDtoToEntity(updateUserDto);
-        if (fromDtoUser.getEmail() != null && !fromDtoUser.getEmail().isEmpty()) {
-            currentUser.setEmail(fromDtoUser.getEmail());
+        String email = fromDtoUser.getEmail();
+        if (email != null && !email.isEmpty()) {
+            if (!email.equalsIgnoreCase(currentUser.getEmail())
+                    && userRepository.existsByEmailIgnoreCaseAndIdNot(email, id)) {
+                throw emailConflict(email);
+            }
+            currentUser.setEmail(email);
         }
         if (fromDtoUser.getName() != null && !fromDtoUser.getName().isEmpty()) {
             currentUser.setName(fromDtoUser.getName());
         }
 
-        List<String> allEmails = userRepository.findAll().stream()
-                .map(User::getEmail)
-                .collect(Collectors.toList());
-        allEmails.remove(currentUser.getEmail());
-        if (allEmails.contains(fromDtoUser.getEmail())) {
-            throw new DataConflictException("User with email: " + fromDtoUser.getEmail() + " already exists in the database");
-        }
-        userRepository.save(currentUser);
-        return UserMapper.toDto(currentUser);
+        return UserMapper.toDto(saveWithUniqueEmail(currentUser));
     }
 
+    @CacheEvict(cacheNames = UserRepository.USERS_CACHE, key = "#userId")
     @Transactional
     @Override
     public void deleteUser(Long userId) {
@@ -82,6 +104,31 @@ public class UserDbService implements UserService {
 
     @Override
     public boolean isUserExist(Long id) {
-        return userRepository.findById(id).isPresent();
+        return userRepository.findViewById(id).isPresent();
+    }
+
+    // the unique index on the email has the final word, concurrent updates can pass the pre-check together
+    private User saveWithUniqueEmail(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailViolation(e)) {
+                throw emailConflict(user.getEmail());
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isEmailViolation(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        if (message == null) {
+            return false;
+        }
+        String lowerCase = message.toLowerCase(Locale.ROOT);
+        return EMAIL_CONSTRAINTS.stream().anyMatch(lowerCase::contains);
+    }
+
+    private static DataConflictException emailConflict(String email) {
+        return new DataConflictException("User with email: " + email + " already exists in the database");
     }
 }
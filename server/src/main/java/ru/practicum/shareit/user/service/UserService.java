@@ -5,11 +5,16 @@ import ru.practicum.shareit.user.dto.request.UpdateUserDto;
 import ru.practicum.shareit.user.dto.response.UserResponseDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserResponseDto getUserById(Long id);
 
-    List<UserResponseDto> getUsers();
+    List<UserResponseDto> getUsers(int from, int size);
+
+    List<UserResponseDto> getUsers(Long afterId, int size);
+
+    void streamUsers(Consumer<UserResponseDto> consumer);
 
     UserResponseDto createUser(CreateUserDto createUserDto);
 
@@ -0,0 +1,19 @@
+-- items of an owner (ItemRepository.findByOwnerId, owner booking listings)
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+
+-- items answering a request
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (item_request_id);
+
+-- booker and owner booking listings, newest first
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+-- overlap check and last/next booking lookups by item and status
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_period ON bookings (item_id, status, start_date, end_date);
+
+-- comments of a set of items (CommentRepository.findByItemIdIn)
+CREATE INDEX IF NOT EXISTS ix_comments_item ON comments (item_id);
+
+-- own requests, newest first (ItemRequestRepository.findByRequesterIdOrderByCreatedDesc)
+CREATE INDEX IF NOT EXISTS ix_item_requests_requester_created ON item_requests (requester_id, created DESC);
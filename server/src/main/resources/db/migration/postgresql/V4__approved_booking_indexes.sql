@@ -0,0 +1,9 @@
+-- last/next and completed booking lookups only ever read approved bookings
+CREATE INDEX IF NOT EXISTS ix_bookings_approved_item_start ON bookings (item_id, start_date) INCLUDE (end_date)
+    WHERE status = 'APPROVED';
+
+CREATE INDEX IF NOT EXISTS ix_bookings_approved_item_end ON bookings (item_id, end_date DESC)
+    WHERE status = 'APPROVED';
+
+CREATE INDEX IF NOT EXISTS ix_bookings_approved_booker_item ON bookings (booker_id, item_id, end_date)
+    WHERE status = 'APPROVED';
@@ -0,0 +1,4 @@
+-- emails are unique regardless of case; the expression index also serves the lower(email) lookups
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (lower(email));
+
+ALTER TABLE users DROP CONSTRAINT IF EXISTS uq_user_email;
@@ -0,0 +1,6 @@
+-- the pooled optimizer hands out the 50 ids below each sequence value, so the next value has to clear max(id) by 50
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50);
+SELECT setval('item_requests_seq', COALESCE((SELECT MAX(id) FROM item_requests), 0) + 50);
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 50);
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 50);
+SELECT setval('comments_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 50);
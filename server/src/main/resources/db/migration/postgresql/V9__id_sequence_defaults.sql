@@ -0,0 +1,21 @@
+-- a row inserted outside Hibernate takes its id from the same sequence instead of the V1 identity, which would hand
+-- out ids the pooled optimizer has already reserved
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+ALTER TABLE item_requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE item_requests ALTER COLUMN id SET DEFAULT nextval('item_requests_seq');
+ALTER SEQUENCE item_requests_seq OWNED BY item_requests.id;
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.id;
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER SEQUENCE bookings_seq OWNED BY bookings.id;
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER SEQUENCE comments_seq OWNED BY comments.id;
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.bookingTests;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.request.BookingCreateRequestDto;
+import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Exercises the database path alone; IndexedBookingConcurrencyTest reruns the scenario with the interval index on
+@SpringBootTest(properties = "shareit.booking.interval-index.enabled=false")
+class BookingConcurrencyTest {
+
+    private static final int ATTEMPTS = 2000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void parallelOverlappingBookings_exactlyOneWins() throws Exception {
+        // both classes share the in-memory database, so keep their users apart
+        String prefix = getClass().getSimpleName().toLowerCase();
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email(prefix + "-owner@mail")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(User.builder()
+                    .name("booker" + i)
+                    .email(prefix + "-booker" + i + "@mail")
+                    .build()));
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            Long bookerId = bookers.get(i % THREADS).getId();
+            BookingCreateRequestDto dto = BookingCreateRequestDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusMinutes(i % 30))
+                    .end(start.plusHours(2).plusMinutes(i % 30))
+                    .build();
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                try {
+                    bookingService.createBooking(bookerId, dto);
+                    created.incrementAndGet();
+                } catch (BadRequestException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(1, created.get());
+        assertEquals(ATTEMPTS - 1, rejected.get());
+        assertEquals(1, bookingRepository.findAll().stream()
+                .filter(b -> b.getItem().getId().equals(item.getId()))
+                .count());
+    }
+}
@@ -8,8 +8,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequestDto;
+import ru.practicum.shareit.booking.dto.response.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.response.BookingResponseDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
@@ -18,9 +20,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -70,6 +74,28 @@ class BookingControllerTest {
     }
 
 
+    @Test
+    void createBookings_returnsPerEntryResults() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingCreateRequestDto> req = List.of(
+                BookingCreateRequestDto.builder().itemId(10L).start(start).end(start.plusDays(1)).build(),
+                BookingCreateRequestDto.builder().itemId(11L).start(start).end(start.plusDays(1)).build());
+
+        given(bookingService.createBookings(eq(5L), anyList())).willReturn(List.of(
+                BookingBatchResultDto.builder().index(0).status(201)
+                        .booking(BookingResponseDto.builder().id(1L).status(BookingStatus.WAITING).build())
+                        .build(),
+                BookingBatchResultDto.builder().index(1).status(404).error("There is no item with id: 11").build()));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(USER_HEADER, 5L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id").value(1))
+                .andExpect(jsonPath("$[1].status").value(404));
+    }
+
     @Test
     void approveBooking_success() throws Exception {
         BookingResponseDto resp = BookingResponseDto.builder()
@@ -122,10 +148,49 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1));
     }
 
+    @Test
+    void getBookingsByUser_fullPage_returnsNextCursor() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        BookingResponseDto b = BookingResponseDto.builder()
+                .id(3L)
+                .start(start)
+                .status(BookingStatus.WAITING)
+                .build();
+        BookingCursor cursor = new BookingCursor(start.plusDays(1), 4L);
+        given(bookingService.getBookingsByUser(eq(4L), eq(BookingState.ALL), eq(cursor), eq(1)))
+                .willReturn(List.of(b));
+
+        mockMvc.perform(get("/bookings")
+                        .header(USER_HEADER, 4L)
+                        .param("size", "1")
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(header().string(BookingCursor.NEXT_CURSOR_HEADER, new BookingCursor(start, 3L).encode()));
+    }
+
+    @Test
+    void getBookingsByUser_partialPage_hasNoNextCursor() throws Exception {
+        given(bookingService.getBookingsByUser(4L, BookingState.ALL, 0, 10)).willReturn(List.of());
+
+        mockMvc.perform(get("/bookings")
+                        .header(USER_HEADER, 4L))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getBookingsByUser_malformedCursor_isBadRequest() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header(USER_HEADER, 4L)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getBookingsByOwner_success_defaultStateAll() throws Exception {
         BookingResponseDto b = BookingResponseDto.builder().id(2L).status(BookingStatus.APPROVED).build();
-        given(bookingService.getBookingsByOwner(8L, BookingState.ALL)).willReturn(List.of(b));
+        given(bookingService.getBookingsByOwner(8L, BookingState.ALL, 0, 10)).willReturn(List.of(b));
 
         mockMvc.perform(get("/bookings/owner")
                         .header(USER_HEADER, 8L))
@@ -133,4 +198,26 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].id").value(2));
     }
+
+    @Test
+    void getBookingsByOwner_withCursor_returnsNextCursor() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 2, 1, 10, 0);
+        BookingResponseDto b = BookingResponseDto.builder()
+                .id(6L)
+                .start(start)
+                .status(BookingStatus.WAITING)
+                .build();
+        BookingCursor cursor = new BookingCursor(start.plusHours(1), 9L);
+        given(bookingService.getBookingsByOwner(eq(8L), eq(BookingState.FUTURE), eq(cursor), eq(1)))
+                .willReturn(List.of(b));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(USER_HEADER, 8L)
+                        .param("state", "FUTURE")
+                        .param("size", "1")
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(6))
+                .andExpect(header().string(BookingCursor.NEXT_CURSOR_HEADER, new BookingCursor(start, 6L).encode()));
+    }
 }
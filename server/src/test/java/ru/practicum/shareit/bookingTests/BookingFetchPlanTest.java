@@ -0,0 +1,151 @@
+package ru.practicum.shareit.bookingTests;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.response.BookingResponseDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+class BookingFetchPlanTest {
+
+    // one select for the user check and one for the page itself
+    private static final long STATEMENTS_PER_LISTING = 2;
+    // the user check and the rows of the page are both projections, not entities
+    private static final long ENTITIES_PER_LISTING = 0;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 40})
+    void bookerListings_issueFixedNumberOfStatements(int bookingCount) {
+        List<Booking> bookings = createBookings(bookingCount, false);
+        Long bookerId = bookings.getFirst().getBooker().getId();
+
+        for (BookingState state : BookingState.values()) {
+            assertStatements(() -> bookingService.getBookingsByUser(bookerId, state, 0, 100));
+        }
+        assertStatements(() -> bookingService.getBookingsByUser(bookerId, BookingState.ALL, 0, 100),
+                all -> assertMapped(bookings, all));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 40})
+    void ownerListings_issueFixedNumberOfStatements(int bookingCount) {
+        List<Booking> bookings = createBookings(bookingCount, true);
+        Long ownerId = bookings.getFirst().getItem().getOwner().getId();
+
+        for (BookingState state : BookingState.values()) {
+            assertStatements(() -> bookingService.getBookingsByOwner(ownerId, state, 0, 100));
+        }
+        assertStatements(() -> bookingService.getBookingsByOwner(ownerId, BookingState.ALL, 0, 100),
+                all -> assertMapped(bookings, all));
+    }
+
+    private void assertStatements(Supplier<List<BookingResponseDto>> listing) {
+        assertStatements(listing, result -> {
+        });
+    }
+
+    // the result is checked before the counts are read, so nothing it touches can load outside the budget
+    private void assertStatements(Supplier<List<BookingResponseDto>> listing,
+                                  Consumer<List<BookingResponseDto>> check) {
+        statistics.clear();
+        check.accept(listing.get());
+        assertEquals(STATEMENTS_PER_LISTING, statistics.getPrepareStatementCount());
+        assertEquals(ENTITIES_PER_LISTING, statistics.getEntityLoadCount());
+    }
+
+    // every returned booking carries the item and booker it was saved with, read by the same statements
+    private static void assertMapped(List<Booking> saved, List<BookingResponseDto> returned) {
+        assertEquals(saved.size(), returned.size());
+        Map<Long, Booking> savedById = saved.stream().collect(Collectors.toMap(Booking::getId, Function.identity()));
+        for (BookingResponseDto dto : returned) {
+            Booking booking = savedById.get(dto.getId());
+            assertNotNull(booking, "unexpected booking " + dto.getId());
+            assertEquals(booking.getItem().getId(), dto.getItem().getId());
+            assertEquals(booking.getItem().getName(), dto.getItem().getName());
+            assertEquals(booking.getBooker().getId(), dto.getBooker().getId());
+            assertEquals(booking.getBooker().getName(), dto.getBooker().getName());
+        }
+    }
+
+    // each booking gets its own item (and optionally its own booker),
+    // so any lazily loaded association shows up as an extra statement per row
+    private List<Booking> createBookings(int count, boolean bookerPerBooking) {
+        String run = UUID.randomUUID().toString();
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner-" + run + "@mail")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker-" + run + "@mail")
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingStatus> statuses = List.of(BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED);
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    Item item = itemRepository.save(Item.builder()
+                            .name("item" + i)
+                            .description("desc")
+                            .available(true)
+                            .owner(owner)
+                            .build());
+                    User bookedBy = !bookerPerBooking ? booker : userRepository.save(User.builder()
+                            .name("booker" + i)
+                            .email("booker-" + i + "-" + run + "@mail")
+                            .build());
+                    return bookingRepository.save(Booking.builder()
+                            .item(item)
+                            .booker(bookedBy)
+                            .start(now.plusDays(i - count / 2))
+                            .end(now.plusDays(i - count / 2).plusHours(12))
+                            .status(statuses.get(i % statuses.size()))
+                            .build());
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.bookingTests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository, true);
+        base = LocalDateTime.now().plusDays(10);
+    }
+
+    @Test
+    void findOverlap_isEmpty_beforeWarmUp() {
+        assertEquals(Optional.empty(), index.findOverlap(1L, base, base.plusDays(1)));
+    }
+
+    @Test
+    void findOverlap_answersFromWarmedIntervals() {
+        when(bookingRepository.findIntervalsEndingAfter(anyList(), any())).thenReturn(List.of(
+                new BookingInterval(1L, 100L, base, base.plusDays(2)),
+                new BookingInterval(2L, 100L, base.plusDays(5), base.plusDays(6))
+        ));
+        index.warmUp();
+
+        assertEquals(Optional.of(true), index.findOverlap(100L, base.plusDays(1), base.plusDays(3)));
+        assertEquals(Optional.of(true), index.findOverlap(100L, base.minusDays(1), base.plusDays(10)));
+        assertEquals(Optional.of(false), index.findOverlap(100L, base.plusDays(2), base.plusDays(5)));
+        assertEquals(Optional.of(false), index.findOverlap(100L, base.plusDays(6), base.plusDays(7)));
+        assertEquals(Optional.of(false), index.findOverlap(200L, base, base.plusDays(2)));
+    }
+
+    @Test
+    void findOverlap_isEmpty_forPeriodStartingBeforeWarmUp() {
+        when(bookingRepository.findIntervalsEndingAfter(anyList(), any())).thenReturn(List.of());
+        index.warmUp();
+
+        assertEquals(Optional.empty(), index.findOverlap(100L, LocalDateTime.now().minusDays(1), base));
+    }
+
+    @Test
+    void warmUp_invalidatesItemWithOverlappingIntervals() {
+        when(bookingRepository.findIntervalsEndingAfter(anyList(), any())).thenReturn(List.of(
+                new BookingInterval(1L, 100L, base, base.plusDays(2)),
+                new BookingInterval(2L, 100L, base.plusDays(1), base.plusDays(3))
+        ));
+        index.warmUp();
+
+        assertEquals(Optional.empty(), index.findOverlap(100L, base.plusDays(5), base.plusDays(6)));
+    }
+
+    @Test
+    void addAndRemove_keepIndexConsistent() {
+        when(bookingRepository.findIntervalsEndingAfter(anyList(), any())).thenReturn(List.of());
+        index.warmUp();
+        Booking booking = Booking.builder()
+                .id(7L)
+                .item(Item.builder().id(100L).build())
+                .start(base)
+                .end(base.plusDays(1))
+                .status(BookingStatus.WAITING)
+                .build();
+
+        index.add(booking);
+        assertEquals(Optional.of(true), index.findOverlap(100L, base, base.plusHours(1)));
+
+        index.remove(booking);
+        assertEquals(Optional.of(false), index.findOverlap(100L, base, base.plusHours(1)));
+    }
+
+    @Test
+    void maintain_movesHorizonAndKeepsUpcomingIntervals() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findIntervalsEndingAfter(anyList(), any())).thenReturn(List.of(
+                new BookingInterval(1L, 100L, now.minusDays(2), now.minusDays(1)),
+                new BookingInterval(2L, 100L, base, base.plusDays(1))
+        ));
+        index.warmUp();
+
+        index.maintain();
+
+        assertEquals(Optional.empty(), index.findOverlap(100L, now, base));
+        assertEquals(Optional.of(true), index.findOverlap(100L, base.plusHours(1), base.plusHours(2)));
+        assertEquals(Optional.of(false), index.findOverlap(100L, base.plusDays(1), base.plusDays(2)));
+    }
+
+    @Test
+    void maintain_reloadsInvalidatedItem_onceItsBookingsNoLongerOverlap() {
+        when(bookingRepository.findIntervalsEndingAfter(anyList(), any())).thenReturn(List.of(
+                new BookingInterval(1L, 100L, base, base.plusDays(2)),
+                new BookingInterval(2L, 100L, base.plusDays(1), base.plusDays(3))
+        ));
+        index.warmUp();
+        when(bookingRepository.findItemIntervalsEndingAfter(eq(100L), anyList(), any())).thenReturn(List.of(
+                new BookingInterval(1L, 100L, base, base.plusDays(2))
+        ));
+
+        index.maintain();
+
+        assertEquals(Optional.of(true), index.findOverlap(100L, base.plusDays(1), base.plusDays(3)));
+        assertEquals(Optional.of(false), index.findOverlap(100L, base.plusDays(2), base.plusDays(3)));
+    }
+
+    @Test
+    void maintain_keepsItemInvalidated_whileBookingsStillOverlap() {
+        List<BookingInterval> overlapping = List.of(
+                new BookingInterval(1L, 100L, base, base.plusDays(2)),
+                new BookingInterval(2L, 100L, base.plusDays(1), base.plusDays(3))
+        );
+        when(bookingRepository.findIntervalsEndingAfter(anyList(), any())).thenReturn(overlapping);
+        index.warmUp();
+        when(bookingRepository.findItemIntervalsEndingAfter(eq(100L), anyList(), any())).thenReturn(overlapping);
+
+        index.maintain();
+
+        assertEquals(Optional.empty(), index.findOverlap(100L, base.plusDays(5), base.plusDays(6)));
+    }
+
+    @Test
+    void disabledIndex_neverAnswers() {
+        BookingIntervalIndex disabled = new BookingIntervalIndex(bookingRepository, false);
+        disabled.warmUp();
+
+        assertEquals(Optional.empty(), disabled.findOverlap(100L, base, base.plusDays(1)));
+        verifyNoInteractions(bookingRepository);
+    }
+}
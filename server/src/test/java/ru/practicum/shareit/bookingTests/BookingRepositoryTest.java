@@ -4,20 +4,28 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.ItemBookingIds;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -52,55 +60,81 @@ class BookingRepositoryTest {
                 .owner(owner)
                 .build());
 
+        // the column keeps microseconds only, keyset comparisons need the persisted precision
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         // PAST
         bookingRepository.save(Booking.builder()
                 .item(item)
                 .booker(booker)
-                .start(LocalDateTime.now().minusDays(3))
-                .end(LocalDateTime.now().minusDays(2))
+                .start(now.minusDays(3))
+                .end(now.minusDays(2))
                 .status(BookingStatus.APPROVED)
                 .build());
         // CURRENT
         bookingRepository.save(Booking.builder()
                 .item(item)
                 .booker(booker)
-                .start(LocalDateTime.now().minusHours(1))
-                .end(LocalDateTime.now().plusHours(1))
+                .start(now.minusHours(1))
+                .end(now.plusHours(1))
                 .status(BookingStatus.APPROVED)
                 .build());
         // FUTURE (WAITING)
         bookingRepository.save(Booking.builder()
                 .item(item)
                 .booker(booker)
-                .start(LocalDateTime.now().plusDays(2))
-                .end(LocalDateTime.now().plusDays(3))
+                .start(now.plusDays(2))
+                .end(now.plusDays(3))
                 .status(BookingStatus.WAITING)
                 .build());
         // FUTURE (REJECTED)
         bookingRepository.save(Booking.builder()
                 .item(item)
                 .booker(booker)
-                .start(LocalDateTime.now().plusDays(4))
-                .end(LocalDateTime.now().plusDays(5))
+                .start(now.plusDays(4))
+                .end(now.plusDays(5))
                 .status(BookingStatus.REJECTED)
                 .build());
     }
 
     @Test
     void getBookingsByBookerId_paged() {
-        Page<Booking> page = bookingRepository.getBookingsByBookerId(booker.getId(), PageRequest.of(0, 10));
-        assertTrue(page.getTotalElements() >= 3);
-        assertTrue(page.getContent().stream()
-                .allMatch(b -> b.getBooker().getId().equals(booker.getId())));
+        List<BookingView> page = bookingRepository.getBookingsByBookerId(booker.getId(), PageRequest.of(0, 10));
+        assertTrue(page.size() >= 3);
+        assertTrue(page.stream()
+                .allMatch(b -> b.bookerId().equals(booker.getId())));
+
+        List<BookingView> secondPage = bookingRepository.getBookingsByBookerId(booker.getId(), PageRequest.of(1, 3));
+        assertEquals(1, secondPage.size());
+        assertEquals(page.get(3).id(), secondPage.getFirst().id());
+    }
+
+    @Test
+    void getBookingsByBookerIdAfterCursor_continuesFromLastBooking() {
+        List<BookingView> firstPage = bookingRepository.getBookingsByBookerId(booker.getId(), PageRequest.of(0, 2));
+        BookingView last = firstPage.getLast();
+
+        List<BookingView> nextPage = bookingRepository.getBookingsByBookerIdAfterCursor(
+                booker.getId(), last.start(), last.id(), PageRequest.of(0, 2));
+
+        assertEquals(2, nextPage.size());
+        assertTrue(nextPage.stream().allMatch(b -> b.start().isBefore(last.start())));
+
+        List<BookingView> futureAfterFirst = bookingRepository.getFutureBookingsAfterCursor(
+                booker.getId(), firstPage.getFirst().start(), firstPage.getFirst().id(), PageRequest.of(0, 10));
+        assertEquals(1, futureAfterFirst.size());
+        assertEquals(BookingStatus.WAITING, futureAfterFirst.getFirst().status());
     }
 
     @Test
     void current_past_future_status_queries() {
-        List<Booking> current = bookingRepository.getCurrentBookings(booker.getId());
-        List<Booking> past = bookingRepository.getPastBookings(booker.getId());
-        List<Booking> future = bookingRepository.getFutureBookings(booker.getId());
-        List<Booking> waiting = bookingRepository.getBookingsByStatus(booker.getId(), BookingStatus.WAITING);
-        List<Booking> rejected = bookingRepository.getBookingsByStatus(booker.getId(), BookingStatus.REJECTED);
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        List<BookingView> current = bookingRepository.getCurrentBookings(booker.getId(), pageRequest);
+        List<BookingView> past = bookingRepository.getPastBookings(booker.getId(), pageRequest);
+        List<BookingView> future = bookingRepository.getFutureBookings(booker.getId(), pageRequest);
+        List<BookingView> waiting = bookingRepository.getBookingsByStatus(
+                booker.getId(), BookingStatus.WAITING, pageRequest);
+        List<BookingView> rejected = bookingRepository.getBookingsByStatus(
+                booker.getId(), BookingStatus.REJECTED, pageRequest);
 
         assertEquals(1, current.size());
         assertEquals(1, past.size());
@@ -111,11 +145,13 @@ class BookingRepositoryTest {
 
     @Test
     void owner_queries() {
-        List<Booking> all = bookingRepository.getBookingsByOwner(owner.getId());
-        List<Booking> cur = bookingRepository.getCurrentBookingsByOwner(owner.getId());
-        List<Booking> past = bookingRepository.getPastBookingsByOwner(owner.getId());
-        List<Booking> fut = bookingRepository.getFutureBookingsByOwner(owner.getId());
-        List<Booking> waiting = bookingRepository.getBookingsByOwnerAndStatus(owner.getId(), BookingStatus.WAITING);
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        List<BookingView> all = bookingRepository.getBookingsByOwner(owner.getId(), pageRequest);
+        List<BookingView> cur = bookingRepository.getCurrentBookingsByOwner(owner.getId(), pageRequest);
+        List<BookingView> past = bookingRepository.getPastBookingsByOwner(owner.getId(), pageRequest);
+        List<BookingView> fut = bookingRepository.getFutureBookingsByOwner(owner.getId(), pageRequest);
+        List<BookingView> waiting = bookingRepository.getBookingsByOwnerAndStatus(
+                owner.getId(), BookingStatus.WAITING, pageRequest);
 
         assertEquals(4, all.size());
         assertEquals(1, cur.size());
@@ -124,5 +160,78 @@ class BookingRepositoryTest {
         assertEquals(1, waiting.size());
     }
 
+    @Test
+    void owner_queries_pagedAndAfterCursor() {
+        List<BookingView> all = bookingRepository.getBookingsByOwner(owner.getId(), PageRequest.of(0, 10));
+        List<BookingView> firstPage = bookingRepository.getBookingsByOwner(owner.getId(), PageRequest.of(0, 3));
+        List<BookingView> secondPage = bookingRepository.getBookingsByOwner(owner.getId(), PageRequest.of(1, 3));
+        BookingView last = firstPage.getLast();
+        List<BookingView> afterCursor = bookingRepository.getBookingsByOwnerAfterCursor(
+                owner.getId(), last.start(), last.id(), PageRequest.of(0, 3));
+
+        assertEquals(all.subList(0, 3), firstPage);
+        assertEquals(all.subList(3, 4), secondPage);
+        assertEquals(secondPage, afterCursor);
+    }
 
+    @Test
+    void findLastAndNextApprovedBookingIds_picksClosestPerItem() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        save(item, now.minusDays(10), now.minusDays(9), BookingStatus.APPROVED);
+        Booking latestPast = save(item, now.minusDays(5), now.minusDays(1), BookingStatus.APPROVED);
+        save(item, now.plusDays(20), now.plusDays(21), BookingStatus.APPROVED);
+        Booking nearFuture = save(item, now.plusDays(6), now.plusDays(7), BookingStatus.APPROVED);
+        Item other = itemRepository.save(Item.builder()
+                .name("saw")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+        Booking otherNext = save(other, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        Item unbooked = itemRepository.save(Item.builder()
+                .name("hammer")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Map<Long, ItemBookingIds> byItemId = bookingRepository.findLastAndNextApprovedBookingIds(
+                        List.of(item.getId(), other.getId(), unbooked.getId()), now).stream()
+                .collect(Collectors.toMap(ItemBookingIds::getItemId, Function.identity()));
+
+        assertEquals(2, byItemId.size());
+        assertEquals(latestPast.getId(), byItemId.get(item.getId()).getLastBookingId());
+        assertEquals(nearFuture.getId(), byItemId.get(item.getId()).getNextBookingId());
+        assertNull(byItemId.get(other.getId()).getLastBookingId());
+        assertEquals(otherNext.getId(), byItemId.get(other.getId()).getNextBookingId());
+    }
+
+    @Test
+    void findIntervalsOverlapping_returnsBlockingBookingsOfGivenItemsInWindow() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Item other = itemRepository.save(Item.builder()
+                .name("saw")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+        save(other, now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+
+        List<BookingInterval> intervals = bookingRepository.findIntervalsOverlapping(List.of(item.getId()),
+                BookingIntervalIndex.BLOCKING_STATUSES, now, now.plusDays(10));
+
+        // the current and the waiting future booking; past, rejected and other items' bookings are left out
+        assertEquals(2, intervals.size());
+        assertTrue(intervals.stream().allMatch(interval -> interval.itemId().equals(item.getId())));
+    }
+
+    private Booking save(Item bookedItem, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(bookedItem)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
 }
@@ -5,17 +5,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.dto.request.BookingCreateRequestDto;
+import ru.practicum.shareit.booking.dto.response.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.response.BookingResponseDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.lock.ItemBookingLocks;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.DataConflictException;
 import ru.practicum.shareit.exceptions.NotEnoughPrivilegesException;
@@ -24,8 +30,11 @@ import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserView;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,6 +51,10 @@ class BookingServiceTest {
     UserRepository userRepository;
     @Mock
     ItemRepository itemRepository;
+    @Mock
+    BookingIntervalIndex bookingIntervalIndex;
+    @Spy
+    ItemBookingLocks itemBookingLocks = new ItemBookingLocks(4);
 
     @InjectMocks
     BookingService service;
@@ -76,7 +89,7 @@ class BookingServiceTest {
         LocalDateTime start = LocalDateTime.now().plusDays(1);
         LocalDateTime end = LocalDateTime.now().plusDays(2);
 
-        when(userRepository.findById(20L)).thenReturn(Optional.of(booker));
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(userView(booker)));
         when(itemRepository.findById(100L)).thenReturn(Optional.of(item));
         when(bookingRepository.existsByItem_IdAndStatusInAndStartLessThanAndEndGreaterThan(
                 eq(100L), anyCollection(), eq(end), eq(start))
@@ -90,7 +103,7 @@ class BookingServiceTest {
                 .end(end)
                 .status(BookingStatus.WAITING)
                 .build();
-        when(bookingRepository.save(any(Booking.class))).thenReturn(saved);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(saved);
 
         BookingCreateRequestDto req = BookingCreateRequestDto.builder()
                 .itemId(100L).start(start).end(end).build();
@@ -99,7 +112,105 @@ class BookingServiceTest {
 
         assertEquals(1L, dto.getId());
         assertEquals(BookingStatus.WAITING, dto.getStatus());
-        verify(bookingRepository).save(any(Booking.class));
+        verify(itemBookingLocks).lockUntilTransactionEnds(100L);
+        verify(bookingRepository).saveAndFlush(any(Booking.class));
+        verify(bookingIntervalIndex).add(saved);
+    }
+
+    @Test
+    void createBookings_savesValidEntriesAndReportsTheRest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        Item ownItem = Item.builder().id(101L).name("own").available(true).owner(booker).build();
+        Item bookedItem = Item.builder().id(102L).name("booked").available(true).owner(owner).build();
+        List<BookingCreateRequestDto> requests = List.of(
+                BookingCreateRequestDto.builder().itemId(100L).start(start).end(end).build(),
+                BookingCreateRequestDto.builder().itemId(100L).start(end).end(start).build(),
+                BookingCreateRequestDto.builder().itemId(999L).start(start).end(end).build(),
+                BookingCreateRequestDto.builder().itemId(101L).start(start).end(end).build(),
+                BookingCreateRequestDto.builder().itemId(102L).start(start).end(end).build(),
+                BookingCreateRequestDto.builder().itemId(100L).start(start.plusHours(1)).end(end).build()
+        );
+
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(userView(booker)));
+        when(itemRepository.findAllById(anyCollection())).thenReturn(List.of(item, ownItem, bookedItem));
+        when(bookingRepository.findIntervalsOverlapping(anyCollection(), anyCollection(), eq(start), eq(end)))
+                .thenReturn(List.of(new BookingInterval(7L, 102L, start.minusHours(1), start.plusHours(1))));
+        Booking saved = Booking.builder()
+                .id(1L).item(item).booker(booker).start(start).end(end).status(BookingStatus.WAITING).build();
+        when(bookingRepository.saveAll(anyList())).thenReturn(List.of(saved));
+
+        List<BookingBatchResultDto> results = service.createBookings(20L, requests);
+
+        assertEquals(List.of(201, 400, 404, 403, 400, 400),
+                results.stream().map(BookingBatchResultDto::getStatus).toList());
+        assertEquals(1L, results.getFirst().getBooking().getId());
+        assertEquals("Your booking is overlapping for item: 100", results.get(5).getError());
+        verify(itemBookingLocks).lockAllUntilTransactionEnds(anyCollection());
+        verify(bookingRepository).flush();
+        verify(bookingIntervalIndex).add(saved);
+    }
+
+    @Test
+    void createBookings_tooManyEntries_throwBadRequest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingCreateRequestDto> requests = Collections.nCopies(BookingService.MAX_BATCH_SIZE + 1,
+                BookingCreateRequestDto.builder().itemId(100L).start(start).end(start.plusDays(1)).build());
+
+        assertThrows(BadRequestException.class, () -> service.createBookings(20L, requests));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void createBooking_usesIntervalIndex_whenWarm() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(2);
+
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(userView(booker)));
+        when(itemRepository.findById(100L)).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.findOverlap(100L, start, end)).thenReturn(Optional.of(true));
+
+        BookingCreateRequestDto req = BookingCreateRequestDto.builder()
+                .itemId(100L).start(start).end(end).build();
+
+        assertThrows(BadRequestException.class, () -> service.createBooking(20L, req));
+        verify(bookingRepository, never())
+                .existsByItem_IdAndStatusInAndStartLessThanAndEndGreaterThan(any(), anyCollection(), any(), any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createBooking_mapsExclusionConstraintViolation_toBadRequest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(2);
+
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(userView(booker)));
+        when(itemRepository.findById(100L)).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("conflicting key value violates exclusion constraint \"ex_booking_item_period\"")));
+
+        BookingCreateRequestDto req = BookingCreateRequestDto.builder()
+                .itemId(100L).start(start).end(end).build();
+
+        assertThrows(BadRequestException.class, () -> service.createBooking(20L, req));
+        verify(bookingIntervalIndex, never()).add(any());
+    }
+
+    @Test
+    void createBooking_rethrowsOtherIntegrityViolations() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(2);
+
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(userView(booker)));
+        when(itemRepository.findById(100L)).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("fk_booking_user"));
+
+        BookingCreateRequestDto req = BookingCreateRequestDto.builder()
+                .itemId(100L).start(start).end(end).build();
+
+        assertThrows(DataIntegrityViolationException.class, () -> service.createBooking(20L, req));
     }
 
     @Test
@@ -115,7 +226,7 @@ class BookingServiceTest {
 
     @Test
     void createBooking_throws_whenUserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findViewById(1L)).thenReturn(Optional.empty());
         BookingCreateRequestDto req = BookingCreateRequestDto.builder()
                 .itemId(100L).start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build();
 
@@ -124,7 +235,7 @@ class BookingServiceTest {
 
     @Test
     void createBooking_throws_whenItemNotFound() {
-        when(userRepository.findById(20L)).thenReturn(Optional.of(booker));
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(userView(booker)));
         when(itemRepository.findById(100L)).thenReturn(Optional.empty());
 
         BookingCreateRequestDto req = BookingCreateRequestDto.builder()
@@ -136,7 +247,7 @@ class BookingServiceTest {
     @Test
     void createBooking_throws_whenItemNotAvailable() {
         item.setAvailable(false);
-        when(userRepository.findById(20L)).thenReturn(Optional.of(booker));
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(userView(booker)));
         when(itemRepository.findById(100L)).thenReturn(Optional.of(item));
 
         BookingCreateRequestDto req = BookingCreateRequestDto.builder()
@@ -147,7 +258,7 @@ class BookingServiceTest {
 
     @Test
     void createBooking_throws_whenOwnerBooksOwnItem() {
-        when(userRepository.findById(10L)).thenReturn(Optional.of(owner));
+        when(userRepository.findViewById(10L)).thenReturn(Optional.of(userView(owner)));
         when(itemRepository.findById(100L)).thenReturn(Optional.of(item));
 
         BookingCreateRequestDto req = BookingCreateRequestDto.builder()
@@ -158,7 +269,7 @@ class BookingServiceTest {
 
     @Test
     void createBooking_throws_whenOverlaps() {
-        when(userRepository.findById(20L)).thenReturn(Optional.of(booker));
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(userView(booker)));
         when(itemRepository.findById(100L)).thenReturn(Optional.of(item));
         when(bookingRepository.existsByItem_IdAndStatusInAndStartLessThanAndEndGreaterThan(eq(100L), anyCollection(), any(), any()))
                 .thenReturn(true);
@@ -176,7 +287,7 @@ class BookingServiceTest {
                 .id(5L).item(item).booker(booker).status(BookingStatus.WAITING).build();
 
         when(bookingRepository.findById(5L)).thenReturn(Optional.of(waiting));
-        when(userRepository.existsById(10L)).thenReturn(true); // owner exists
+        when(userRepository.findViewById(10L)).thenReturn(Optional.of(new UserView(10L, "user", "user@mail"))); // owner exists
         when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
 
         BookingResponseDto dto = service.approveBooking(10L, 5L, true);
@@ -193,11 +304,12 @@ class BookingServiceTest {
                 .build();
 
         when(bookingRepository.findById(6L)).thenReturn(Optional.of(waiting));
-        when(userRepository.existsById(10L)).thenReturn(true);
+        when(userRepository.findViewById(10L)).thenReturn(Optional.of(new UserView(10L, "user", "user@mail")));
         when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
 
         BookingResponseDto dto = service.approveBooking(10L, 6L, false);
         assertEquals(BookingStatus.REJECTED, dto.getStatus());
+        verify(bookingIntervalIndex).remove(waiting);
     }
 
     @Test
@@ -222,7 +334,7 @@ class BookingServiceTest {
                 .status(BookingStatus.WAITING)
                 .build();
         when(bookingRepository.findById(8L)).thenReturn(Optional.of(waiting));
-        when(userRepository.existsById(10L)).thenReturn(false);
+        when(userRepository.findViewById(10L)).thenReturn(Optional.empty());
 
         assertThrows(BadRequestException.class, () -> service.approveBooking(10L, 8L, true));
     }
@@ -236,7 +348,7 @@ class BookingServiceTest {
                 .status(BookingStatus.WAITING)
                 .build();
         when(bookingRepository.findById(9L)).thenReturn(Optional.of(waiting));
-        when(userRepository.existsById(20L)).thenReturn(true);
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(new UserView(20L, "user", "user@mail")));
 
         assertThrows(NotEnoughPrivilegesException.class, () -> service.approveBooking(20L, 9L, true));
     }
@@ -250,7 +362,7 @@ class BookingServiceTest {
                 .status(BookingStatus.APPROVED)
                 .build();
         when(bookingRepository.findById(12L)).thenReturn(Optional.of(b));
-        when(userRepository.existsById(10L)).thenReturn(true);
+        when(userRepository.findViewById(10L)).thenReturn(Optional.of(new UserView(10L, "user", "user@mail")));
 
         BookingResponseDto dto = service.getBookingById(10L, 12L);
         assertEquals(12L, dto.getId());
@@ -271,7 +383,7 @@ class BookingServiceTest {
                 .status(BookingStatus.APPROVED)
                 .build();
         when(bookingRepository.findById(13L)).thenReturn(Optional.of(b));
-        when(userRepository.existsById(10L)).thenReturn(false);
+        when(userRepository.findViewById(10L)).thenReturn(Optional.empty());
 
         assertThrows(BadRequestException.class, () -> service.getBookingById(10L, 13L));
     }
@@ -290,22 +402,15 @@ class BookingServiceTest {
                 .status(BookingStatus.APPROVED)
                 .build();
         when(bookingRepository.findById(14L)).thenReturn(Optional.of(b));
-        when(userRepository.existsById(99L)).thenReturn(true);
+        when(userRepository.findViewById(99L)).thenReturn(Optional.of(new UserView(99L, "user", "user@mail")));
 
         assertThrows(NotEnoughPrivilegesException.class, () -> service.getBookingById(99L, 14L));
     }
 
     @Test
     void getBookingsByUser_all_usesPageable() {
-        when(userRepository.findById(20L)).thenReturn(Optional.of(booker));
-        Page<Booking> page = new PageImpl<>(List.of(
-                Booking.builder()
-                        .id(1L)
-                        .item(item)
-                        .booker(booker)
-                        .status(BookingStatus.APPROVED)
-                        .build()
-        ));
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(userView(booker)));
+        List<BookingView> page = List.of(view(1L, BookingStatus.APPROVED));
         when(bookingRepository.getBookingsByBookerId(eq(20L), any(PageRequest.class))).thenReturn(page);
 
         List<BookingResponseDto> list = service.getBookingsByUser(20L, BookingState.ALL, 0, 10);
@@ -316,43 +421,70 @@ class BookingServiceTest {
 
     @Test
     void getBookingsByUser_current_branchCalled() {
-        when(userRepository.findById(20L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.getCurrentBookings(20L)).thenReturn(List.of(
-                Booking.builder()
-                        .id(2L)
-                        .item(item)
-                        .booker(booker)
-                        .build()
-        ));
-
-        List<BookingResponseDto> list = service.getBookingsByUser(20L, BookingState.CURRENT, 0, 10);
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(userView(booker)));
+        when(bookingRepository.getCurrentBookings(20L, PageRequest.of(1, 10)))
+                .thenReturn(List.of(view(2L, BookingStatus.WAITING)));
+
+        List<BookingResponseDto> list = service.getBookingsByUser(20L, BookingState.CURRENT, 1, 10);
+        assertEquals(1, list.size());
+        verify(bookingRepository).getCurrentBookings(20L, PageRequest.of(1, 10));
+    }
+
+    @Test
+    void getBookingsByUser_withCursor_usesKeysetQuery() {
+        LocalDateTime cursorStart = LocalDateTime.now();
+        when(userRepository.findViewById(20L)).thenReturn(Optional.of(userView(booker)));
+        when(bookingRepository.getBookingsByStatusAfterCursor(
+                20L, BookingStatus.WAITING, cursorStart, 7L, PageRequest.of(0, 5)))
+                .thenReturn(List.of(view(3L, BookingStatus.WAITING)));
+
+        List<BookingResponseDto> list = service.getBookingsByUser(
+                20L, BookingState.WAITING, new BookingCursor(cursorStart, 7L), 5);
+
         assertEquals(1, list.size());
-        verify(bookingRepository).getCurrentBookings(20L);
+        assertEquals(3L, list.getFirst().getId());
     }
 
 
     @Test
     void getBookingsByOwner_allBranch() {
-        when(userRepository.findById(10L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.getBookingsByOwner(10L)).thenReturn(List.of(
-                Booking.builder()
-                        .id(1L)
-                        .item(item)
-                        .booker(booker)
-                        .build()
-        ));
-
-        List<BookingResponseDto> list = service.getBookingsByOwner(10L, BookingState.ALL);
+        when(userRepository.findViewById(10L)).thenReturn(Optional.of(userView(owner)));
+        when(bookingRepository.getBookingsByOwner(10L, PageRequest.of(2, 5)))
+                .thenReturn(List.of(view(1L, BookingStatus.WAITING)));
+
+        List<BookingResponseDto> list = service.getBookingsByOwner(10L, BookingState.ALL, 10, 5);
         assertEquals(1, list.size());
-        verify(bookingRepository).getBookingsByOwner(10L);
+        verify(bookingRepository).getBookingsByOwner(10L, PageRequest.of(2, 5));
     }
 
     @Test
     void getBookingsByOwner_waitingBranch() {
-        when(userRepository.findById(10L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.getBookingsByOwnerAndStatus(10L, BookingStatus.WAITING)).thenReturn(List.of());
+        when(userRepository.findViewById(10L)).thenReturn(Optional.of(userView(owner)));
+        when(bookingRepository.getBookingsByOwnerAndStatus(10L, BookingStatus.WAITING, PageRequest.of(0, 10)))
+                .thenReturn(List.of());
+
+        service.getBookingsByOwner(10L, BookingState.WAITING, 0, 10);
+        verify(bookingRepository).getBookingsByOwnerAndStatus(10L, BookingStatus.WAITING, PageRequest.of(0, 10));
+    }
+
+    @Test
+    void getBookingsByOwner_withCursor_usesKeysetQuery() {
+        LocalDateTime cursorStart = LocalDateTime.now();
+        when(userRepository.findViewById(10L)).thenReturn(Optional.of(userView(owner)));
+        when(bookingRepository.getPastBookingsByOwnerAfterCursor(10L, cursorStart, 4L, PageRequest.of(0, 3)))
+                .thenReturn(List.of());
+
+        service.getBookingsByOwner(10L, BookingState.PAST, new BookingCursor(cursorStart, 4L), 3);
+        verify(bookingRepository).getPastBookingsByOwnerAfterCursor(10L, cursorStart, 4L, PageRequest.of(0, 3));
+    }
+
+    private BookingView view(Long id, BookingStatus status) {
+        return new BookingView(id, LocalDateTime.now(), LocalDateTime.now().plusDays(1), status,
+                booker.getId(), booker.getName(), booker.getEmail(),
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+    }
 
-        service.getBookingsByOwner(10L, BookingState.WAITING);
-        verify(bookingRepository).getBookingsByOwnerAndStatus(10L, BookingStatus.WAITING);
+    private static UserView userView(User user) {
+        return new UserView(user.getId(), user.getName(), user.getEmail());
     }
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.bookingTests;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Same scenario as BookingConcurrencyTest, with the interval index answering the overlap pre-check
+@SpringBootTest(properties = "shareit.booking.interval-index.enabled=true")
+class IndexedBookingConcurrencyTest extends BookingConcurrencyTest {
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.itemTests;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSnapshot;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearch;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvertedIndexItemSearchTest {
+    @Mock
+    ItemRepository itemRepository;
+
+    @InjectMocks
+    InvertedIndexItemSearch itemSearch;
+
+    @Test
+    void searchAvailable_fallsBackToDatabase_beforeWarmUp() {
+        Item drill = Item.builder().id(1L).name("drill").build();
+        when(itemRepository.searchAvailableByPattern(7L, "%dri%", PageRequest.of(0, 10)))
+                .thenReturn(List.of(drill));
+
+        assertEquals(List.of(drill), itemSearch.searchAvailable(7L, "dri", 0, 10));
+    }
+
+    @Test
+    void searchAvailable_hydratesOnlyTheMatchedPage_inIndexOrder() {
+        when(itemRepository.findAllSnapshots()).thenReturn(List.of(
+                new ItemSnapshot(1L, 7L, true, "drill", "red"),
+                new ItemSnapshot(2L, 7L, true, "drill", "blue"),
+                new ItemSnapshot(3L, 7L, true, "drill", "green")));
+        itemSearch.warmUp();
+        Item second = Item.builder().id(2L).build();
+        Item third = Item.builder().id(3L).build();
+        when(itemRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(third, second));
+
+        assertEquals(List.of(second, third), itemSearch.searchAvailable(7L, "drill", 1, 2));
+        verify(itemRepository, never()).searchAvailableByPattern(any(), any(), any());
+    }
+
+    @Test
+    void onItemChanged_appliesAvailabilityFlipsWithoutTouchingDatabase() {
+        when(itemRepository.findAllSnapshots()).thenReturn(List.of(new ItemSnapshot(1L, 7L, true, "drill", "red")));
+        itemSearch.warmUp();
+
+        itemSearch.onItemChanged(new ItemChangedEvent(new ItemSnapshot(1L, 7L, false, "drill", "red")));
+
+        assertEquals(List.of(), itemSearch.searchAvailable(7L, "drill", 0, 10));
+        verify(itemRepository, never()).findAllById(any());
+    }
+}
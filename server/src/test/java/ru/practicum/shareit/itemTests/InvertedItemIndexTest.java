@@ -0,0 +1,71 @@
+package ru.practicum.shareit.itemTests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.ItemSnapshot;
+import ru.practicum.shareit.item.search.InvertedItemIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InvertedItemIndexTest {
+    private static final Long OWNER = 1L;
+    private static final Long OTHER_OWNER = 2L;
+
+    private InvertedItemIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedItemIndex();
+        index.put(new ItemSnapshot(3L, OWNER, true, "Cordless drill", "Drill with two batteries"));
+        index.put(new ItemSnapshot(1L, OWNER, true, "Hammer", "Steel hammer, rubber grip"));
+        index.put(new ItemSnapshot(2L, OWNER, true, "Drill bits", "Set of 20 bits for the drill"));
+        index.put(new ItemSnapshot(4L, OWNER, false, "Old drill", "Broken"));
+        index.put(new ItemSnapshot(5L, OTHER_OWNER, true, "Drill", "Someone else's drill"));
+    }
+
+    @Test
+    void tokenize_splitsOnNonWordCharactersAndLowercases() {
+        assertEquals(List.of("steel", "hammer", "rubber", "grip"), InvertedItemIndex.tokenize("Steel hammer, rubber-grip"));
+        assertEquals(List.of(), InvertedItemIndex.tokenize(" ,. "));
+    }
+
+    @Test
+    void search_matchesPrefixesOfAnyWord_inIdOrder() {
+        assertEquals(List.of(2L, 3L), index.search(OWNER, "dri", 0, 10));
+        assertEquals(List.of(1L), index.search(OWNER, "RUB", 0, 10));
+    }
+
+    @Test
+    void search_requiresEveryQueryToken() {
+        assertEquals(List.of(3L), index.search(OWNER, "drill batt", 0, 10));
+        assertEquals(List.of(), index.search(OWNER, "drill grip", 0, 10));
+    }
+
+    @Test
+    void search_skipsUnavailableAndForeignItems_andPages() {
+        assertEquals(List.of(5L), index.search(OTHER_OWNER, "drill", 0, 10));
+        assertEquals(List.of(3L), index.search(OWNER, "drill", 1, 1));
+        assertEquals(List.of(), index.search(OWNER, "drill", 2, 1));
+    }
+
+    @Test
+    void put_reindexesChangedItem() {
+        index.put(new ItemSnapshot(1L, OWNER, true, "Mallet", "Wooden"));
+        index.put(new ItemSnapshot(4L, OWNER, true, "Old drill", "Repaired"));
+
+        assertEquals(List.of(), index.search(OWNER, "hammer", 0, 10));
+        assertEquals(List.of(1L), index.search(OWNER, "wood", 0, 10));
+        assertEquals(List.of(2L, 3L, 4L), index.search(OWNER, "drill", 0, 10));
+    }
+
+    @Test
+    void remove_dropsItemFromAllPostings() {
+        index.remove(3L);
+
+        assertEquals(List.of(2L), index.search(OWNER, "drill", 0, 10));
+        assertEquals(List.of(), index.search(OWNER, "cordless", 0, 10));
+        assertEquals(4, index.size());
+    }
+}
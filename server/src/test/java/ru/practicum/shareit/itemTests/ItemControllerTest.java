@@ -6,23 +6,35 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.RequestDeadlineFilter;
+import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.comments.dto.request.CommentCreateRequestDto;
 import ru.practicum.shareit.item.comments.dto.response.CommentResponseDto;
 import ru.practicum.shareit.item.dto.request.ItemCreateDto;
 import ru.practicum.shareit.item.dto.request.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.response.ItemImportReportDto;
 import ru.practicum.shareit.item.dto.response.ItemResponseDto;
+import ru.practicum.shareit.item.imports.ItemImportFormat;
+import ru.practicum.shareit.item.imports.ItemImportService;
 import ru.practicum.shareit.item.service.ItemDbService;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -36,6 +48,9 @@ class ItemControllerTest {
     @MockBean()
     private ItemDbService itemService;
 
+    @MockBean
+    private ItemImportService itemImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -125,6 +140,36 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.available").value(true));
     }
 
+    @Test
+    void getItem_withMatchingEtag_returnsNotModified() throws Exception {
+        ItemResponseDto resp = ItemResponseDto.builder()
+                .id(10L).name("item10").description("desc10").available(true).build();
+
+        given(itemService.getById(eq(3L), eq(10L))).willReturn(resp);
+
+        String etag = mockMvc.perform(get("/items/10")
+                        .header(USER_HEADER, 3L))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/items/10")
+                        .header(USER_HEADER, 3L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getItem_pastGatewayDeadline_returnsServiceUnavailable() throws Exception {
+        mockMvc.perform(get("/items/10")
+                        .header(USER_HEADER, 3L)
+                        .header(RequestDeadlineFilter.DEADLINE_HEADER, System.currentTimeMillis() - 1))
+                .andExpect(status().isServiceUnavailable());
+
+        verifyNoInteractions(itemService);
+    }
+
     @Test
     void getAllUserItems_success() throws Exception {
         ItemResponseDto i1 = ItemResponseDto.builder()
@@ -147,11 +192,13 @@ class ItemControllerTest {
         ItemResponseDto i = ItemResponseDto.builder()
                 .id(3L).name("hammer").description("steel").available(true).build();
 
-        given(itemService.searchItem(eq(4L), eq("ham"))).willReturn(List.of(i));
+        given(itemService.searchItem(eq(4L), eq("ham"), eq(5), eq(5))).willReturn(List.of(i));
 
         mockMvc.perform(get("/items/search")
                         .header(USER_HEADER, 4L)
-                        .param("text", "ham"))
+                        .param("text", "ham")
+                        .param("from", "5")
+                        .param("size", "5"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].name").value("hammer"));
@@ -180,4 +227,85 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.text").value("nice item"))
                 .andExpect(jsonPath("$.authorName").value("owner"));
     }
+
+    @Test
+    void importItems_streamsReportAsNdjson() throws Exception {
+        doAnswer(inv -> {
+            Consumer<ItemImportReportDto> report = inv.getArgument(3);
+            report.accept(ItemImportReportDto.builder().type(ItemImportReportDto.ERROR).row(2L)
+                    .error("name: must not be blank").build());
+            report.accept(ItemImportReportDto.builder().type(ItemImportReportDto.DONE)
+                    .processed(2L).imported(1L).failed(1L).build());
+            return null;
+        }).when(itemImportService).importItems(eq(2L), eq(ItemImportFormat.CSV), any(), any());
+
+        MvcResult started = mockMvc.perform(post("/items/import")
+                        .header(USER_HEADER, 2L)
+                        .contentType(ItemImportFormat.TEXT_CSV_VALUE)
+                        .content("name,description,available\ndrill,desc,true\n,desc,true\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"type\":\"error\",\"row\":2,\"error\":\"name: must not be blank\"}\n" +
+                                "{\"type\":\"done\",\"processed\":2,\"imported\":1,\"failed\":1}\n"));
+    }
+
+    @Test
+    void importItems_progressReachesClientBeforeImportEnds() throws Exception {
+        CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(inv -> {
+            Consumer<ItemImportReportDto> report = inv.getArgument(3);
+            report.accept(ItemImportReportDto.builder().type(ItemImportReportDto.PROGRESS)
+                    .processed(500L).imported(500L).failed(0L).build());
+            assertTrue(finish.await(5, TimeUnit.SECONDS));
+            report.accept(ItemImportReportDto.builder().type(ItemImportReportDto.DONE)
+                    .processed(500L).imported(500L).failed(0L).build());
+            return null;
+        }).when(itemImportService).importItems(eq(2L), eq(ItemImportFormat.NDJSON), any(), any());
+
+        MvcResult started = mockMvc.perform(post("/items/import")
+                        .header(USER_HEADER, 2L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String progress = "{\"type\":\"progress\",\"processed\":500,\"imported\":500,\"failed\":0}\n";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (started.getResponse().getContentAsString().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(progress, started.getResponse().getContentAsString());
+        finish.countDown();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void importItems_unknownUser_returnsNotFound() throws Exception {
+        doThrow(new NotFoundException("There is no such user with id: 2")).when(itemImportService).checkOwner(2L);
+
+        mockMvc.perform(post("/items/import")
+                        .header(USER_HEADER, 2L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n"))
+                .andExpect(status().isNotFound());
+        verify(itemImportService, never()).importItems(any(), any(), any(), any());
+    }
+
+    @Test
+    void importItems_unsupportedFormat_returnsUnsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/items/import")
+                        .header(USER_HEADER, 2L)
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<items/>"))
+                .andExpect(status().isUnsupportedMediaType());
+        verifyNoInteractions(itemImportService);
+    }
 }
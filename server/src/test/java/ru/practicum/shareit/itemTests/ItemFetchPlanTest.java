@@ -0,0 +1,115 @@
+package ru.practicum.shareit.itemTests;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.comments.model.Comment;
+import ru.practicum.shareit.item.comments.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.response.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class ItemFetchPlanTest {
+
+    // the item with the caller check and booking ids, then the comments with their authors
+    private static final long STATEMENTS_PER_ITEM = 2;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking last;
+    private Booking next;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = user("owner");
+        booker = user("booker");
+        item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        booking(now.minusDays(10), now.minusDays(9));
+        last = booking(now.minusDays(3), now.minusDays(2));
+        next = booking(now.plusDays(2), now.plusDays(3));
+        booking(now.plusDays(5), now.plusDays(6));
+        commentRepository.save(Comment.builder()
+                .text("works well")
+                .item(item)
+                .author(booker)
+                .created(now.minusDays(1))
+                .build());
+    }
+
+    @Test
+    void getById_byOwner_issuesTwoStatements() {
+        statistics.clear();
+        ItemResponseDto dto = itemService.getById(owner.getId(), item.getId());
+
+        assertEquals(STATEMENTS_PER_ITEM, statistics.getPrepareStatementCount());
+        assertEquals(last.getId(), dto.getLastBooking());
+        assertEquals(next.getId(), dto.getNextBooking());
+        assertEquals("works well", dto.getComments().getFirst().getText());
+    }
+
+    @Test
+    void getById_byOtherUser_issuesTwoStatements() {
+        statistics.clear();
+        ItemResponseDto dto = itemService.getById(booker.getId(), item.getId());
+
+        assertEquals(STATEMENTS_PER_ITEM, statistics.getPrepareStatementCount());
+        assertNull(dto.getLastBooking());
+        assertNull(dto.getNextBooking());
+        assertEquals(1, dto.getComments().size());
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email("fetch-plan-" + name + "-" + System.nanoTime() + "@mail")
+                .build());
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+}
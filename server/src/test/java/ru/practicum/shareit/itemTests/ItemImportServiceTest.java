@@ -0,0 +1,159 @@
+package ru.practicum.shareit.itemTests;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.response.ItemImportReportDto;
+import ru.practicum.shareit.item.imports.ItemImportFormat;
+import ru.practicum.shareit.item.imports.ItemImportService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.item.import.chunk-size=2")
+class ItemImportServiceTest {
+
+    @Autowired
+    private ItemImportService itemImportService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private ItemRequest request;
+    private final List<ItemImportReportDto> report = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("import-owner-" + System.nanoTime() + "@mail")
+                .build());
+        User requester = userRepository.save(User.builder()
+                .name("requester")
+                .email("import-requester-" + System.nanoTime() + "@mail")
+                .build());
+        request = itemRequestRepository.save(ItemRequest.builder()
+                .description("need a drill")
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void importNdjson_savesValidRowsAndReportsRefusedOnes() throws Exception {
+        String body = "{\"name\":\"drill\",\"description\":\"cordless\",\"available\":true}\n"
+                + "\n"
+                + "{\"name\":\"\",\"description\":\"no name\",\"available\":true}\n"
+                + "{\"name\":\"saw\",\"description\":\"for the request\",\"available\":false,"
+                + "\"requestId\":" + request.getId() + "}\n"
+                + "{not json\n"
+                + "{\"name\":\"ladder\",\"description\":\"unknown request\",\"available\":true,\"requestId\":-1}\n";
+
+        ItemImportReportDto done = importItems(ItemImportFormat.NDJSON, body);
+
+        assertEquals(5, done.getProcessed());
+        assertEquals(2, done.getImported());
+        assertEquals(3, done.getFailed());
+        assertEquals(List.of(2L, 4L, 5L), report.stream()
+                .filter(line -> ItemImportReportDto.ERROR.equals(line.getType()))
+                .map(ItemImportReportDto::getRow)
+                .sorted()
+                .toList());
+        assertEquals("There is no request with id: -1", errorOf(5));
+        assertEquals("name: must not be blank", errorOf(2));
+        assertEquals(2, report.stream().filter(line -> ItemImportReportDto.PROGRESS.equals(line.getType())).count());
+        assertEquals(ItemImportReportDto.DONE, report.getLast().getType());
+
+        List<Item> items = itemRepository.findByOwnerId(owner.getId());
+        assertEquals(List.of("drill", "saw"), items.stream().map(Item::getName).sorted().toList());
+        assertEquals(request.getId(), items.stream()
+                .filter(item -> item.getName().equals("saw"))
+                .findFirst().orElseThrow()
+                .getItemRequest().getId());
+    }
+
+    @Test
+    void importCsv_readsHeaderQuotedCellsAndEmptyRequestId() throws Exception {
+        String body = "name,description,available,requestId\n"
+                + "drill,\"cordless, 18V\",true,\n"
+                + "saw,hand saw,false," + request.getId() + "\n"
+                + "ladder,aluminium,maybe,\n"
+                + "hammer,,true,\n";
+
+        ItemImportReportDto done = importItems(ItemImportFormat.CSV, body);
+
+        assertEquals(4, done.getProcessed());
+        assertEquals(2, done.getImported());
+        assertEquals(2, done.getFailed());
+        assertTrue(errorOf(3).startsWith("Malformed row"));
+        assertEquals("description: must not be blank", errorOf(4));
+        assertEquals(List.of("cordless, 18V", "hand saw"), itemRepository.findByOwnerId(owner.getId()).stream()
+                .map(Item::getDescription)
+                .sorted()
+                .toList());
+    }
+
+    // with open-in-view the request's EntityManager outlives every chunk transaction, as it does for the
+    // StreamingResponseBody of POST /items/import
+    @Test
+    void importUnderOpenEntityManager_leavesNoItemsInPersistenceContext() throws Exception {
+        String line = "{\"name\":\"drill\",\"description\":\"cordless\",\"available\":true}\n";
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            ItemImportReportDto done = importItems(ItemImportFormat.NDJSON, line.repeat(5));
+
+            assertEquals(5, done.getImported());
+            assertTrue(entityManager.unwrap(Session.class).getStatistics().getEntityKeys().stream()
+                    .map(EntityKey.class::cast)
+                    .noneMatch(key -> key.getEntityName().equals(Item.class.getName())));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void checkOwner_throwsNotFound_forUnknownUser() {
+        assertThrows(NotFoundException.class, () -> itemImportService.checkOwner(-1L));
+    }
+
+    private ItemImportReportDto importItems(ItemImportFormat format, String body) throws Exception {
+        return itemImportService.importItems(owner.getId(), format,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), report::add);
+    }
+
+    private String errorOf(long row) {
+        return report.stream()
+                .filter(line -> ItemImportReportDto.ERROR.equals(line.getType()) && line.getRow() == row)
+                .findFirst().orElseThrow()
+                .getError();
+    }
+}
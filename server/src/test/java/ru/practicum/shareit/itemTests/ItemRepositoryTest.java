@@ -5,8 +5,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
@@ -93,16 +95,32 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    public void searchAvailableItemsTest() {
-        List<Item> items = itemRepository.searchAvailableItems(itemOwner.getId());
-        assertEquals(2, items.size());
+    public void searchAvailableByPatternTest() {
+        List<Item> items = itemRepository.searchAvailableByPattern(itemOwner.getId(),
+                ItemSearch.containsPattern("ITEMTWO"), PageRequest.of(0, 10));
+        assertEquals(List.of(itemTwo), items);
+
+        List<Item> byDescription = itemRepository.searchAvailableByPattern(itemOwner.getId(),
+                ItemSearch.containsPattern("one"), PageRequest.of(0, 10));
+        assertEquals(List.of(itemOne, itemTwo), byDescription);
     }
 
     @Test
-    public void searchItemsTest() {
-        List<Item> items = itemRepository.searchItems("itemTwo");
-        assertEquals(1, items.size());
-        assertTrue(items.contains(itemTwo));
+    public void searchAvailableByPattern_pagesAndSkipsOtherOwners() {
+        List<Item> secondPage = itemRepository.searchAvailableByPattern(itemOwner.getId(),
+                ItemSearch.containsPattern("item"), PageRequest.of(1, 1));
+        assertEquals(List.of(itemTwo), secondPage);
+
+        assertTrue(itemRepository.searchAvailableByPattern(requestor.getId(),
+                ItemSearch.containsPattern("item"), PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    public void searchAvailableByPattern_treatsWildcardsLiterally() {
+        assertTrue(itemRepository.searchAvailableByPattern(itemOwner.getId(),
+                ItemSearch.containsPattern("%"), PageRequest.of(0, 10)).isEmpty());
+        assertTrue(itemRepository.searchAvailableByPattern(itemOwner.getId(),
+                ItemSearch.containsPattern("item_ne"), PageRequest.of(0, 10)).isEmpty());
     }
 
     @Test
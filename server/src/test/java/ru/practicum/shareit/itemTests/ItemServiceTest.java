@@ -6,8 +6,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingIds;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.comments.dto.request.CommentCreateRequestDto;
@@ -18,10 +20,15 @@ import ru.practicum.shareit.item.dto.request.ItemCreateDto;
 import ru.practicum.shareit.item.dto.request.ItemUpdateDto;
 import ru.practicum.shareit.item.dto.response.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDetails;
+import ru.practicum.shareit.item.model.ItemSnapshot;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.item.service.ItemDbService;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserView;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
@@ -46,6 +53,10 @@ public class ItemServiceTest {
     CommentRepository commentRepository;
     @Mock
     UserService userService;
+    @Mock
+    ItemSearch itemSearch;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     ItemDbService itemService;
@@ -82,8 +93,8 @@ public class ItemServiceTest {
                 .requestId(null)
                 .build();
 
-        when(userRepository.findById(itemOwner.getId()))
-                .thenReturn(Optional.of(itemOwner));
+        when(userRepository.findViewById(itemOwner.getId()))
+                .thenReturn(Optional.of(userView(itemOwner)));
         when(itemRepository.save(any(Item.class)))
                 .thenAnswer(invocationOnMock -> {
                     Item item = invocationOnMock.getArgument(0);
@@ -96,6 +107,8 @@ public class ItemServiceTest {
         assertEquals("item name", itemResponseDto.getName());
         assertTrue(itemResponseDto.getAvailable());
         verify(itemRepository).save(argThat(item -> item.getOwner().equals(itemOwner)));
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(
+                new ItemSnapshot(2L, itemOwner.getId(), true, "item name", "item description")));
     }
 
     @Test
@@ -106,7 +119,7 @@ public class ItemServiceTest {
                 .available(true)
                 .requestId(null)
                 .build();
-        when(userRepository.findById(anyLong()))
+        when(userRepository.findViewById(anyLong()))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.createItem(1L, itemCreateDto));
@@ -125,28 +138,48 @@ public class ItemServiceTest {
                 .thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(itemOne));
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(new User()));
+        when(userRepository.findViewById(anyLong()))
+                .thenReturn(Optional.of(new UserView(1L, "user", "user@mail")));
 
         ItemResponseDto itemResponseDto = itemService.updateItem(itemOwner.getId(), itemOne.getId(), itemUpdateDto);
         assertEquals("itemOne updated", itemResponseDto.getName());
         assertEquals("itemOne Desc updated", itemResponseDto.getDescription());
         assertFalse(itemResponseDto.getAvailable());
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(new ItemSnapshot(
+                itemOne.getId(), itemOwner.getId(), false, "itemOne updated", "itemOne Desc updated")));
     }
 
     @Test
     public void getItemByIdSuccessful() {
-        when(itemRepository.findById(itemOne.getId()))
-                .thenReturn(Optional.of(itemOne));
+        when(itemRepository.findDetailsById(eq(itemOne.getId()), eq(itemOwner.getId()), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(itemDetails(itemOne, true, 3L, 4L)));
         when(commentRepository.findAllByItem_Id(itemOne.getId()))
                 .thenReturn(Collections.emptyList());
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(new User()));
-
 
         ItemResponseDto itemResponseDto = itemService.getById(itemOwner.getId(), itemOne.getId());
         assertEquals(itemOne.getId(), itemResponseDto.getId());
         assertEquals(Collections.emptyList(), itemResponseDto.getComments());
+        assertEquals(3L, itemResponseDto.getLastBooking());
+        assertEquals(4L, itemResponseDto.getNextBooking());
+        verifyNoInteractions(userRepository, bookingRepository);
+    }
+
+    @Test
+    public void getItemById_unknownItem_throwsNotFound() {
+        when(itemRepository.findDetailsById(eq(99L), eq(itemOwner.getId()), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.getById(itemOwner.getId(), 99L));
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    public void getItemById_unknownUser_throwsNotFound() {
+        when(itemRepository.findDetailsById(eq(itemOne.getId()), eq(99L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(itemDetails(itemOne, false, null, null)));
+
+        assertThrows(NotFoundException.class, () -> itemService.getById(99L, itemOne.getId()));
+        verifyNoInteractions(commentRepository);
     }
 
     @Test
@@ -155,9 +188,7 @@ public class ItemServiceTest {
                 .thenReturn(List.of(itemOne));
         when(commentRepository.findByItemIdIn(List.of(itemOne.getId())))
                 .thenReturn(Collections.emptyList());
-        when(bookingRepository.getLastApprovedByItemIds(anyList(), any(LocalDateTime.class)))
-                .thenReturn(Collections.emptyList());
-        when(bookingRepository.getNextApprovedByItemIds(anyList(), any(LocalDateTime.class)))
+        when(bookingRepository.findLastAndNextApprovedBookingIds(anyList(), any(LocalDateTime.class)))
                 .thenReturn(Collections.emptyList());
 
         List<ItemResponseDto> itemResponseDtos = itemService.getAllUserItems(itemOwner.getId());
@@ -168,22 +199,28 @@ public class ItemServiceTest {
 
     @Test
     public void searchItemSuccessful() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(new User()));
-        when(itemRepository.searchAvailableItems(itemOwner.getId()))
+        when(userRepository.findViewById(anyLong()))
+                .thenReturn(Optional.of(new UserView(1L, "user", "user@mail")));
+        when(itemSearch.searchAvailable(itemOwner.getId(), "itemOne", 0, 10))
                 .thenReturn(List.of(itemOne));
 
-        List<ItemResponseDto> itemResponseDtos = itemService.searchItem(itemOwner.getId(), "itemOne");
+        List<ItemResponseDto> itemResponseDtos = itemService.searchItem(itemOwner.getId(), " itemOne ", 0, 10);
         assertEquals(1, itemResponseDtos.size());
         assertEquals("itemOne", itemResponseDtos.getFirst().getName());
     }
 
+    @Test
+    public void searchItem_blankText_returnsEmptyWithoutSearching() {
+        assertTrue(itemService.searchItem(itemOwner.getId(), "  ", 0, 10).isEmpty());
+        verifyNoInteractions(itemSearch, userRepository);
+    }
+
     @Test
     public void createCommentSuccessful() {
         when(itemRepository.findById(itemOne.getId()))
                 .thenReturn(Optional.of(itemOne));
-        when(userRepository.findById(itemOwner.getId()))
-                .thenReturn(Optional.of(itemOwner));
+        when(userRepository.findViewById(itemOwner.getId()))
+                .thenReturn(Optional.of(userView(itemOwner)));
         when(bookingRepository.getCompletedBookings(itemOne.getId(), itemOwner.getId()))
                 .thenReturn(List.of(Booking.builder().build()));
         when(commentRepository.save(any(Comment.class)))
@@ -217,4 +254,66 @@ public class ItemServiceTest {
         assertEquals(comment.getId(), commentResponseDtos.getFirst().getId());
         assertEquals(comment.getText(), commentResponseDtos.getFirst().getText());
     }
+
+    private static ItemDetails itemDetails(Item item, boolean callerExists, Long lastBookingId, Long nextBookingId) {
+        return new ItemDetails() {
+            @Override
+            public Long getId() {
+                return item.getId();
+            }
+
+            @Override
+            public String getName() {
+                return item.getName();
+            }
+
+            @Override
+            public String getDescription() {
+                return item.getDescription();
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return item.getAvailable();
+            }
+
+            @Override
+            public Boolean getCallerExists() {
+                return callerExists;
+            }
+
+            @Override
+            public Long getLastBookingId() {
+                return lastBookingId;
+            }
+
+            @Override
+            public Long getNextBookingId() {
+                return nextBookingId;
+            }
+        };
+    }
+
+    private static ItemBookingIds bookingIds(Long itemId, Long lastBookingId, Long nextBookingId) {
+        return new ItemBookingIds() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getLastBookingId() {
+                return lastBookingId;
+            }
+
+            @Override
+            public Long getNextBookingId() {
+                return nextBookingId;
+            }
+        };
+    }
+
+    private static UserView userView(User user) {
+        return new UserView(user.getId(), user.getName(), user.getEmail());
+    }
 }
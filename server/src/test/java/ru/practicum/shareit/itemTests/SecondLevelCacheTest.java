@@ -0,0 +1,109 @@
+package ru.practicum.shareit.itemTests;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("l2-owner-" + System.nanoTime() + "@mail")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @Test
+    void findById_isServedFromSecondLevelCache_withOwner() {
+        transactionTemplate.executeWithoutResult(status -> itemRepository.findById(item.getId()));
+        statistics.clear();
+
+        String ownerName = transactionTemplate.execute(status ->
+                itemRepository.findById(item.getId()).orElseThrow().getOwner().getName());
+
+        assertEquals("owner", ownerName);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    void findByOwnerId_isServedFromQueryCache_untilItemsChange() {
+        transactionTemplate.executeWithoutResult(status -> itemRepository.findByOwnerId(owner.getId()));
+        statistics.clear();
+
+        List<Item> cached = transactionTemplate.execute(status -> itemRepository.findByOwnerId(owner.getId()));
+
+        assertEquals(1, cached.size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        itemRepository.save(Item.builder()
+                .name("saw")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        assertEquals(2, transactionTemplate.execute(status -> itemRepository.findByOwnerId(owner.getId())).size());
+    }
+
+    @Test
+    void findByRequesterId_isServedFromQueryCache() {
+        itemRequestRepository.save(ItemRequest.builder()
+                .description("need a drill")
+                .requester(owner)
+                .created(LocalDateTime.now())
+                .build());
+        transactionTemplate.executeWithoutResult(status ->
+                itemRequestRepository.findByRequesterIdOrderByCreatedDesc(owner.getId()));
+        statistics.clear();
+
+        List<ItemRequest> cached = transactionTemplate.execute(status ->
+                itemRequestRepository.findByRequesterIdOrderByCreatedDesc(owner.getId()));
+
+        assertEquals(1, cached.size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+}
@@ -19,6 +19,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserView;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -59,7 +60,7 @@ class ItemRequestServiceTest {
     void create_success() {
         ItemRequestCreateDto dto = ItemRequestCreateDto.builder().description("need drill").build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(requester));
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(userView(requester)));
         when(itemRequestRepository.save(any(ItemRequest.class))).thenAnswer(inv -> {
             ItemRequest r = inv.getArgument(0);
             return ItemRequest.builder()
@@ -79,7 +80,7 @@ class ItemRequestServiceTest {
 
     @Test
     void create_userNotFound_throws() {
-        when(userRepository.findById(9L)).thenReturn(Optional.empty());
+        when(userRepository.findViewById(9L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> service.create(9L, ItemRequestCreateDto.builder().description("x").build()));
@@ -88,7 +89,7 @@ class ItemRequestServiceTest {
 
     @Test
     void getRequestsByUserId_success_enriched() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(requester));
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(userView(requester)));
         when(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(1L)).thenReturn(List.of(req1));
 
         // items привязанные к запросу
@@ -143,7 +144,7 @@ class ItemRequestServiceTest {
         ItemRequest r2 = ItemRequest.builder()
                 .id(200L).description("other need").requester(other).created(LocalDateTime.now()).build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(requester));
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(userView(requester)));
         when(itemRequestRepository.findByRequesterIdNot(eq(1L), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of(r2)));
 
@@ -159,4 +160,8 @@ class ItemRequestServiceTest {
         assertEquals(200L, list.get(0).getId());
         assertEquals("saw", list.get(0).getItems().get(0).getName());
     }
+
+    private static UserView userView(User user) {
+        return new UserView(user.getId(), user.getName(), user.getEmail());
+    }
 }
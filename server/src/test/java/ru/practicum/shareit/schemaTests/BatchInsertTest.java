@@ -0,0 +1,104 @@
+package ru.practicum.shareit.schemaTests;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.request.BookingCreateRequestDto;
+import ru.practicum.shareit.booking.dto.response.BookingBatchResultDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Sequence ids with a pooled optimizer let Hibernate send inserts in JDBC batches of hibernate.jdbc.batch_size.
+@SpringBootTest
+class BatchInsertTest {
+    private static final int ROWS = 120;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("batch-owner-" + System.nanoTime() + "@mail")
+                .build());
+    }
+
+    @Test
+    void saveAllItems_isSentInJdbcBatches() {
+        List<Item> items = IntStream.range(0, ROWS)
+                .mapToObj(i -> Item.builder()
+                        .name("item" + i)
+                        .description("desc")
+                        .available(true)
+                        .owner(owner)
+                        .build())
+                .toList();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(items));
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 10,
+                "statements prepared: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void createBookings_isSentInJdbcBatches() {
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("batch-booker-" + System.nanoTime() + "@mail")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingCreateRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            requests.add(BookingCreateRequestDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i).plusMinutes(30))
+                    .build());
+        }
+        statistics.clear();
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(booker.getId(), requests);
+
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == 201));
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 10,
+                "statements prepared: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.schemaTests;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against the migrated PostgreSQL-mode H2 schema. H2 picks ix_bookings_item_status_period for the overlap check
+// on its own. Elsewhere it prefers the index it creates for each foreign key, even with data and ANALYZE, because its
+// cost model does not reward extra key columns or a matching sort order. H2 cannot show those indexes being chosen, so
+// the remaining tests pin them with USE INDEX and only check that each one drives the lookup for its query.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bookingOverlapCheck_usesItemStatusPeriodIndex() {
+        String plan = explain("SELECT 1 FROM bookings b " +
+                "WHERE b.item_id = 1 AND b.status IN ('APPROVED', 'WAITING') " +
+                "AND b.start_date < CURRENT_TIMESTAMP AND b.end_date > CURRENT_TIMESTAMP");
+
+        assertLookup(plan, "ix_bookings_item_status_period", "status IN('APPROVED', 'WAITING')");
+        assertTrue(plan.contains("item_id = CAST(1 AS BIGINT)"), plan);
+    }
+
+    @Test
+    void approvedBookingsOfItems_canUseItemStatusPeriodIndex() {
+        String plan = explain("SELECT * FROM bookings b USE INDEX (ix_bookings_item_status_period) " +
+                "WHERE b.item_id IN (1, 2) AND b.status = 'APPROVED' AND b.end_date < CURRENT_TIMESTAMP");
+
+        assertLookup(plan, "ix_bookings_item_status_period", "end_date < CURRENT_TIMESTAMP");
+        assertTrue(plan.contains("item_id IN(1, 2)"), plan);
+        assertTrue(plan.contains("status = 'APPROVED'"), plan);
+    }
+
+    @Test
+    void bookerListing_canUseBookerStartIndex() {
+        String plan = explain("SELECT * FROM bookings b USE INDEX (ix_bookings_booker_start) " +
+                "WHERE b.booker_id = 1 ORDER BY b.start_date DESC, b.id DESC LIMIT 10");
+
+        assertLookup(plan, "ix_bookings_booker_start", "booker_id = CAST(1 AS BIGINT)");
+    }
+
+    @Test
+    void ownerListing_canUseOwnerAndItemStartIndexes() {
+        String plan = explain("SELECT b.* FROM items i USE INDEX (ix_items_owner) " +
+                "JOIN bookings b USE INDEX (ix_bookings_item_start) ON i.id = b.item_id " +
+                "WHERE i.owner_id = 1 ORDER BY b.start_date DESC, b.id DESC LIMIT 10");
+
+        assertLookup(plan, "ix_items_owner", "owner_id = CAST(1 AS BIGINT)");
+        assertLookup(plan, "ix_bookings_item_start", "item_id = i.id");
+    }
+
+    @Test
+    void itemsByOwner_canUseOwnerIndex() {
+        String plan = explain("SELECT * FROM items i USE INDEX (ix_items_owner) WHERE i.owner_id = 1 ORDER BY i.id");
+
+        assertLookup(plan, "ix_items_owner", "owner_id = CAST(1 AS BIGINT)");
+    }
+
+    @Test
+    void itemsOfRequest_canUseRequestIndex() {
+        String plan = explain("SELECT * FROM items i USE INDEX (ix_items_request) WHERE i.item_request_id = 1");
+
+        assertLookup(plan, "ix_items_request", "item_request_id = CAST(1 AS BIGINT)");
+    }
+
+    @Test
+    void commentsOfItems_canUseCommentItemIndex() {
+        String plan = explain("SELECT * FROM comments c USE INDEX (ix_comments_item) WHERE c.item_id IN (1, 2)");
+
+        assertLookup(plan, "ix_comments_item", "item_id IN(1, 2)");
+    }
+
+    @Test
+    void requestsOfRequester_canUseRequesterCreatedIndex() {
+        String plan = explain("SELECT * FROM item_requests r USE INDEX (ix_item_requests_requester_created) " +
+                "WHERE r.requester_id = 1 ORDER BY r.created DESC");
+
+        assertLookup(plan, "ix_item_requests_requester_created", "requester_id = CAST(1 AS BIGINT)");
+    }
+
+    @Test
+    void migrations_createIndexesForHotPaths() {
+        for (String index : new String[]{"ix_items_owner", "ix_items_request", "ix_bookings_booker_start",
+                "ix_bookings_item_start", "ix_bookings_item_status_period", "ix_comments_item",
+                "ix_item_requests_requester_created"}) {
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = ?", Integer.class, index),
+                    index);
+        }
+    }
+
+    private String explain(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertFalse(plan.contains("tableScan"), plan);
+        return plan;
+    }
+
+    // H2 falls back to a table scan when a hinted index cannot serve the query, so explain() catches that case
+    private void assertLookup(String plan, String index, String condition) {
+        assertTrue(plan.contains("/* public." + index + ": " + condition), plan);
+    }
+}
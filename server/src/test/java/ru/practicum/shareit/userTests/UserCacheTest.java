@@ -0,0 +1,101 @@
+package ru.practicum.shareit.userTests;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.request.UpdateUserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserDbService;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+class UserCacheTest {
+
+    @Autowired
+    private UserDbService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(User.builder()
+                .name("cached")
+                .email("cached-" + System.nanoTime() + "@mail")
+                .build());
+    }
+
+    @Test
+    void repeatedLookups_hitTheCacheInsteadOfTheDatabase() {
+        userService.getUserById(user.getId());
+        statistics.clear();
+
+        assertEquals("cached", userService.getUserById(user.getId()).getName());
+        assertTrue(userService.isUserExist(user.getId()));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(nativeCache().stats().hitCount() >= 2);
+    }
+
+    @Test
+    void updateUser_evictsTheCachedUser() {
+        userService.getUserById(user.getId());
+        UpdateUserDto dto = new UpdateUserDto();
+        dto.setName("renamed");
+
+        userService.updateUser(user.getId(), dto);
+
+        assertEquals("renamed", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void deleteUser_evictsTheCachedUser() {
+        assertTrue(userService.isUserExist(user.getId()));
+
+        userService.deleteUser(user.getId());
+
+        assertFalse(userService.isUserExist(user.getId()));
+    }
+
+    @Test
+    void deleteUser_evictsAfterCommit_soAConcurrentReadCannotReCacheTheUser() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.deleteUser(user.getId());
+            // another request reads the committed row while the delete is still open
+            assertTrue(CompletableFuture.supplyAsync(() -> userService.isUserExist(user.getId())).join());
+        });
+
+        assertFalse(userService.isUserExist(user.getId()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache() {
+        TransactionAwareCacheDecorator cache =
+                (TransactionAwareCacheDecorator) cacheManager.getCache(UserRepository.USERS_CACHE);
+        return ((CaffeineCache) cache.getTargetCache()).getNativeCache();
+    }
+}
@@ -8,19 +8,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.dto.request.CreateUserDto;
 import ru.practicum.shareit.user.dto.request.UpdateUserDto;
 import ru.practicum.shareit.user.dto.response.UserResponseDto;
 import ru.practicum.shareit.user.service.UserDbService;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -41,15 +43,54 @@ class UserControllerTest {
                 UserResponseDto.builder().id(1L).name("u1").email("u1@mail.com").build(),
                 UserResponseDto.builder().id(2L).name("u2").email("u2@mail.com").build()
         );
-        given(userService.getUsers()).willReturn(list);
+        given(userService.getUsers(0, 10)).willReturn(list);
 
         mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[1].email").value("u2@mail.com"));
     }
 
+    @Test
+    void getUsers_fullPage_returnsNextCursor() throws Exception {
+        List<UserResponseDto> list = List.of(
+                UserResponseDto.builder().id(3L).name("u3").email("u3@mail.com").build(),
+                UserResponseDto.builder().id(4L).name("u4").email("u4@mail.com").build()
+        );
+        given(userService.getUsers(2L, 2)).willReturn(list);
+
+        mockMvc.perform(get("/users")
+                        .param("cursor", "2")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "4"))
+                .andExpect(jsonPath("$[0].id").value(3));
+    }
+
+    @Test
+    void getUsers_ndjson_streamsOneUserPerLine() throws Exception {
+        doAnswer(inv -> {
+            Consumer<UserResponseDto> consumer = inv.getArgument(0);
+            consumer.accept(UserResponseDto.builder().id(1L).name("u1").email("u1@mail.com").build());
+            consumer.accept(UserResponseDto.builder().id(2L).name("u2").email("u2@mail.com").build());
+            return null;
+        }).when(userService).streamUsers(any());
+
+        MvcResult started = mockMvc.perform(get("/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"name\":\"u1\",\"email\":\"u1@mail.com\"}\n" +
+                                "{\"id\":2,\"name\":\"u2\",\"email\":\"u2@mail.com\"}\n"));
+    }
+
     @Test
     void getUserById_success() throws Exception {
         UserResponseDto dto = UserResponseDto.builder().id(10L).name("john").email("j@d.com").build();
@@ -4,13 +4,18 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserView;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -59,4 +64,44 @@ class UserRepositoryTest {
         assertTrue(userRepository.findById(id).isEmpty());
         assertEquals(0, userRepository.findAll().size());
     }
+
+    @Test
+    void existsByEmailIgnoreCaseAndIdNot_ignoresCaseAndOwnRow() {
+        User userOne = userRepository.save(User.builder()
+                .name("john")
+                .email("j@d.com")
+                .build()
+        );
+        User userTwo = userRepository.save(User.builder()
+                .name("mary")
+                .email("m@d.com")
+                .build()
+        );
+
+        assertTrue(userRepository.existsByEmailIgnoreCaseAndIdNot("J@D.COM", userTwo.getId()));
+        assertFalse(userRepository.existsByEmailIgnoreCaseAndIdNot("J@D.COM", userOne.getId()));
+        assertFalse(userRepository.existsByEmailIgnoreCaseAndIdNot("x@d.com", userOne.getId()));
+    }
+
+    @Test
+    void pagesAndStream_followIdOrder() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(userRepository.save(User.builder()
+                    .name("user" + i)
+                    .email("user" + i + "@d.com")
+                    .build()
+            ).getId());
+        }
+
+        assertEquals(ids.subList(2, 4), userRepository.findPage(PageRequest.of(1, 2)).stream()
+                .map(User::getId)
+                .toList());
+        assertEquals(ids.subList(2, 4), userRepository.findPageAfter(ids.get(1), PageRequest.of(0, 2)).stream()
+                .map(User::getId)
+                .toList());
+        try (Stream<UserView> stream = userRepository.streamAll()) {
+            assertEquals(ids, stream.map(UserView::id).toList());
+        }
+    }
 }
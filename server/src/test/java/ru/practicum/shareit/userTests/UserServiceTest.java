@@ -6,6 +6,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exceptions.DataConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.UserRepository;
@@ -13,10 +15,13 @@ import ru.practicum.shareit.user.dto.request.CreateUserDto;
 import ru.practicum.shareit.user.dto.request.UpdateUserDto;
 import ru.practicum.shareit.user.dto.response.UserResponseDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserView;
 import ru.practicum.shareit.user.service.UserDbService;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -43,18 +48,18 @@ class UserServiceTest {
 
     @Test
     void getUserById_success() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(userOne));
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(userView(userOne)));
 
         UserResponseDto dto = userService.getUserById(1L);
 
         assertEquals(1L, dto.getId());
         assertEquals("john", dto.getName());
-        verify(userRepository).findById(1L);
+        verify(userRepository).findViewById(1L);
     }
 
     @Test
     void getUserById_notFound() {
-        when(userRepository.findById(100L)).thenReturn(Optional.empty());
+        when(userRepository.findViewById(100L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> userService.getUserById(100L));
     }
@@ -62,21 +67,45 @@ class UserServiceTest {
     @Test
     void getUsers_success() {
         User u2 = User.builder().id(2L).name("mary").email("m@d.com").build();
-        when(userRepository.findAll()).thenReturn(List.of(userOne, u2));
+        when(userRepository.findPage(PageRequest.of(0, 10))).thenReturn(List.of(userOne, u2));
 
-        var list = userService.getUsers();
+        var list = userService.getUsers(0, 10);
 
         assertEquals(2, list.size());
         assertEquals("mary", list.get(1).getName());
     }
 
+    @Test
+    void getUsers_afterCursor_readsNextKeysetPage() {
+        User u2 = User.builder().id(2L).name("mary").email("m@d.com").build();
+        when(userRepository.findPageAfter(1L, PageRequest.of(0, 5))).thenReturn(List.of(u2));
+
+        var list = userService.getUsers(1L, 5);
+
+        assertEquals(1, list.size());
+        assertEquals(2L, list.getFirst().getId());
+    }
+
+    @Test
+    void streamUsers_passesEveryRowToConsumer() {
+        when(userRepository.streamAll()).thenReturn(Stream.of(
+                new UserView(1L, "john", "j@d.com"),
+                new UserView(2L, "mary", "m@d.com")));
+        List<UserResponseDto> streamed = new ArrayList<>();
+
+        userService.streamUsers(streamed::add);
+
+        assertEquals(List.of(1L, 2L), streamed.stream().map(UserResponseDto::getId).toList());
+        verify(userRepository, never()).findAll();
+    }
+
     @Test
     void createUser_success() {
         CreateUserDto req = new CreateUserDto();
         req.setName("alex");
         req.setEmail("a@a.com");
 
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> {
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(inv -> {
             User toSave = inv.getArgument(0);
             return User.builder()
                     .id(10L)
@@ -89,7 +118,31 @@ class UserServiceTest {
 
         assertEquals(10L, dto.getId());
         assertEquals("alex", dto.getName());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    void createUser_duplicateEmail_throwsDataConflict() {
+        CreateUserDto req = new CreateUserDto();
+        req.setName("alex");
+        req.setEmail("j@d.com");
+
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("ux_users_email_lower"));
+
+        assertThrows(DataConflictException.class, () -> userService.createUser(req));
+    }
+
+    @Test
+    void createUser_otherIntegrityViolation_isNotReportedAsEmailConflict() {
+        CreateUserDto req = new CreateUserDto();
+        req.setName(null);
+        req.setEmail("j@d.com");
+
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("NULL not allowed for column \"name\""));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(req));
     }
 
     @Test
@@ -99,15 +152,27 @@ class UserServiceTest {
         req.setEmail("new@mail.com");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(userOne));
-        when(userRepository.getById(1L)).thenReturn(userOne);
-        when(userRepository.findAll()).thenReturn(List.of(userOne));
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(userRepository.existsByEmailIgnoreCaseAndIdNot("new@mail.com", 1L)).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
 
         UserResponseDto dto = userService.updateUser(1L, req);
 
         assertEquals("new", dto.getName());
         assertEquals("new@mail.com", dto.getEmail());
-        verify(userRepository).save(userOne);
+        verify(userRepository).saveAndFlush(userOne);
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void updateUser_sameEmailOtherCase_skipsUniquenessCheck() {
+        UpdateUserDto req = new UpdateUserDto();
+        req.setEmail("J@D.com");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(userOne));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertEquals("J@D.com", userService.updateUser(1L, req).getEmail());
+        verify(userRepository, never()).existsByEmailIgnoreCaseAndIdNot(anyString(), anyLong());
     }
 
     @Test
@@ -118,7 +183,7 @@ class UserServiceTest {
         when(userRepository.findById(2L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> userService.updateUser(2L, req));
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -126,19 +191,29 @@ class UserServiceTest {
         UpdateUserDto req = new UpdateUserDto();
         req.setEmail("dup@mail.com");
 
-        User other = User.builder().id(2L).name("o").email("dup@mail.com").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(userOne));
+        when(userRepository.existsByEmailIgnoreCaseAndIdNot("dup@mail.com", 1L)).thenReturn(true);
+
+        assertThrows(DataConflictException.class, () -> userService.updateUser(1L, req));
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updateUser_concurrentEmailConflict_throwsDataConflict() {
+        UpdateUserDto req = new UpdateUserDto();
+        req.setEmail("dup@mail.com");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(userOne));
-        when(userRepository.getById(1L)).thenReturn(userOne);
-        when(userRepository.findAll()).thenReturn(List.of(userOne, other));
+        when(userRepository.existsByEmailIgnoreCaseAndIdNot("dup@mail.com", 1L)).thenReturn(false);
+        when(userRepository.saveAndFlush(userOne))
+                .thenThrow(new DataIntegrityViolationException("ux_users_email_lower"));
 
         assertThrows(DataConflictException.class, () -> userService.updateUser(1L, req));
-        verify(userRepository, never()).save(any());
     }
 
     @Test
     void deleteUser_existing_callsRepoDelete() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(userOne));
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(userView(userOne)));
 
         userService.deleteUser(1L);
 
@@ -147,7 +222,7 @@ class UserServiceTest {
 
     @Test
     void deleteUser_absent_noop() {
-        when(userRepository.findById(9L)).thenReturn(Optional.empty());
+        when(userRepository.findViewById(9L)).thenReturn(Optional.empty());
 
         userService.deleteUser(9L);
 
@@ -156,10 +231,14 @@ class UserServiceTest {
 
     @Test
     void isUserExist_trueFalse() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(userOne));
-        when(userRepository.findById(8L)).thenReturn(Optional.empty());
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(userView(userOne)));
+        when(userRepository.findViewById(8L)).thenReturn(Optional.empty());
 
         assertTrue(userService.isUserExist(1L));
         assertFalse(userService.isUserExist(8L));
     }
+
+    private static UserView userView(User user) {
+        return new UserView(user.getId(), user.getName(), user.getEmail());
+    }
 }